@@ -0,0 +1,65 @@
+package benchmark;
+
+import util.WordFile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared test data for the benchmarks. Benchmarks have to be run from the repository root so words_alpha.txt and
+ * tournament.txt are found the same way the server finds them.
+ */
+final class Dictionaries {
+
+    private static List<String> words;
+
+    private Dictionaries() {
+    }
+
+    /**
+     * @return - the whole word list, read once per fork
+     */
+    static synchronized List<String> words() {
+        if (words == null) {
+            words = Collections.unmodifiableList(WordFile.readWordFile());
+            if (words.isEmpty()) {
+                throw new IllegalStateException("words_alpha.txt not found, run the benchmarks from the repository root");
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Takes an evenly spread, sorted sample of the word list so smaller dictionaries still look like the real one
+     * @param size - number of words to keep
+     * @return - sorted sample of the word list
+     */
+    static ArrayList<String> sample(int size) {
+        List<String> all = words();
+        ArrayList<String> sample = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sample.add(all.get((int) ((long) i * all.size() / size)));
+        }
+        Collections.sort(sample);
+        return sample;
+    }
+
+    /**
+     * Builds a rack the same way RandomLetters does but from a seeded Random so every run scores the same letters
+     * @param random - seeded random
+     * @param length - number of letters
+     * @return - rack of upper case letters
+     */
+    static char[] rack(Random random, int length) {
+        String vowels = "AEIOU";
+        String consonants = "BCDFGHJKLMNPQRSTVWXYZ";
+        char[] rack = new char[length];
+        for (int i = 0; i < length; i++) {
+            String from = i < 3 ? vowels : consonants;
+            rack[i] = from.charAt(random.nextInt(from.length()));
+        }
+        return rack;
+    }
+}
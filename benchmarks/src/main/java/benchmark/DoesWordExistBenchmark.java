@@ -0,0 +1,103 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.DictionaryCompiler;
+import util.DoesWordExist;
+import util.MappedDictionary;
+import util.WordGraph;
+import util.WordIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up a mix of hits and misses in every dictionary representation we have, for a few dictionary sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoesWordExistBenchmark {
+
+    @Param({"10000", "100000", "370105"})
+    public int dictionarySize;
+
+    private ArrayList<String> sortedList;
+    private WordIndex index;
+    private WordGraph graph;
+    private MappedDictionary mapped;
+    private Path mappedFile;
+    private String[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        sortedList = Dictionaries.sample(dictionarySize);
+        index = new WordIndex(sortedList);
+        graph = new WordGraph(sortedList);
+
+        mappedFile = Files.createTempFile("words", ".bin");
+        DictionaryCompiler.compile(sortedList, mappedFile);
+        mapped = MappedDictionary.open(mappedFile);
+
+        // half the probes are in the dictionary, the other half are real words that were sampled out or misspelled
+        Random random = new Random(42);
+        List<String> all = Dictionaries.words();
+        probes = new String[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = i % 2 == 0
+                    ? sortedList.get(random.nextInt(sortedList.size()))
+                    : all.get(random.nextInt(all.size())) + "q";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(mappedFile);
+    }
+
+    private String nextProbe() {
+        String probe = probes[next];
+        next = (next + 1) & (probes.length - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public boolean sortedListBinarySearch() {
+        return DoesWordExist.execute(sortedList, nextProbe());
+    }
+
+    @Benchmark
+    public boolean hashIndex() {
+        return DoesWordExist.execute(index, nextProbe());
+    }
+
+    @Benchmark
+    public boolean wordGraph() {
+        return DoesWordExist.execute(graph, nextProbe());
+    }
+
+    @Benchmark
+    public boolean mappedFile() {
+        return DoesWordExist.execute(mapped, nextProbe());
+    }
+}
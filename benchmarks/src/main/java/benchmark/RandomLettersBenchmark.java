@@ -0,0 +1,49 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.RandomLetters;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of making and shuffling a scramble for each rack length the game uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RandomLettersBenchmark {
+
+    @Param({"5", "7", "10", "15"})
+    public int amount;
+
+    private char[] letters;
+
+    @Setup
+    public void setup() {
+        letters = RandomLetters.letterGetter(amount).toCharArray();
+    }
+
+    @Benchmark
+    public String letterGetter() {
+        return RandomLetters.letterGetter(amount);
+    }
+
+    @Benchmark
+    public ArrayList<Character> letterShuffler() {
+        return RandomLetters.letterShuffler(letters);
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Score;
+import util.WordFile;
+import util.WordGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores a mix of real words, words that don't fit the rack and made up words against racks of different lengths,
+ * which is what the server does for every '?' command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreBenchmark {
+
+    @Param({"5", "7", "10", "15"})
+    public int rackLength;
+
+    private char[] rack;
+    private String[] guesses;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        rack = Dictionaries.rack(random, rackLength);
+
+        WordGraph graph = WordFile.readWordGraph();
+        List<String> mix = new ArrayList<>(graph.wordsFormableFrom(rack));
+        List<String> all = Dictionaries.words();
+        for (int i = 0; i < 64; i++) {
+            mix.add(all.get(random.nextInt(all.size()))); // real words that mostly won't fit the rack
+            mix.add(new String(rack).toLowerCase() + i); // not words at all
+        }
+        guesses = mix.toArray(new String[0]);
+
+        Score.calculate("warmup", rack); // load the dictionary before measuring
+    }
+
+    @Benchmark
+    public int calculate() {
+        String guess = guesses[next];
+        next = (next + 1) % guesses.length;
+        return Score.calculate(guess, rack);
+    }
+
+    @Benchmark
+    public int[] calculateAll() {
+        return Score.calculateAll(guesses, rack);
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.FileTournamentStore;
+import util.GroupCommitWriter;
+import util.TournamentScoreboard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time for the server to open its scoreboard after a restart, with the whole history still in the text log as
+ * it was before snapshots, or checkpointed into a snapshot. The store lives in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TournamentRecoveryBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int records;
+
+    @Param({"LOG", "SNAPSHOT"})
+    public String from;
+
+    private Path directory;
+    private Path log;
+
+    @Setup(Level.Trial)
+    public void writeHistory() throws IOException {
+        directory = Files.createTempDirectory("tournament");
+        log = directory.resolve("tournament.txt");
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            lines.add("player" + random.nextInt(10_000) + " " + random.nextInt(500) + " " + (1 + random.nextInt(5)));
+        }
+        Files.write(log, lines);
+
+        if (from.equals("SNAPSHOT")) {
+            try (FileTournamentStore store = new FileTournamentStore(log, GroupCommitWriter.Durability.FSYNC,
+                    Long.MAX_VALUE)) {
+                store.recover(record -> { });
+                store.checkpoint();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteHistory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int open() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(log)) {
+            return scoreboard.size();
+        }
+    }
+}
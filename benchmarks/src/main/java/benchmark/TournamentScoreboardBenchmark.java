@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.GroupCommitWriter;
+import util.TournamentScoreboard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one '#' score submission and one leaderboard read for different amounts of tournament history. The
+ * scoreboard journals to a temporary file, so the real tournament.txt is never touched. submitTogether is a
+ * room of players finishing at once, where group commit shares one write between them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TournamentScoreboardBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int records;
+
+    @Param({"FSYNC", "ASYNC"})
+    public GroupCommitWriter.Durability durability;
+
+    private Path journal;
+    private TournamentScoreboard scoreboard;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void createJournal() throws IOException {
+        journal = Files.createTempFile("tournament", ".txt");
+        random = new Random(42);
+    }
+
+    /**
+     * every submission adds a record, so the history is reset to the parameter size before each iteration
+     */
+    @Setup(Level.Iteration)
+    public void writeHistory() throws IOException {
+        List<String> lines = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            lines.add("player" + i + " " + random.nextInt(500) + " " + (1 + random.nextInt(5)));
+        }
+        Files.write(journal, lines);
+        scoreboard = TournamentScoreboard.open(journal, durability);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeScoreboard() throws IOException {
+        scoreboard.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        Files.deleteIfExists(journal);
+    }
+
+    @Benchmark
+    public boolean submit() {
+        return scoreboard.submit("bench", random.nextInt(500), 1).join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean submitTogether() {
+        return scoreboard.submit("bench", ThreadLocalRandom.current().nextInt(500), 1).join();
+    }
+
+    @Benchmark
+    public String leaderboard() {
+        return scoreboard.getLeaderboard();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.WordFile;
+import util.WordGraph;
+import util.WordIndex;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of every way of loading words_alpha.txt, which is what the first '?' command of a fresh server waits on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WordFileBenchmark {
+
+    @Benchmark
+    public ArrayList<String> readWordFile() {
+        return WordFile.readWordFile();
+    }
+
+    @Benchmark
+    public WordIndex readWordIndex() {
+        return WordFile.readWordIndex();
+    }
+
+    @Benchmark
+    public WordGraph readWordGraph() {
+        return WordFile.readWordGraph();
+    }
+}
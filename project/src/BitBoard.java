@@ -0,0 +1,308 @@
+import java.util.Arrays;
+
+/**
+ * The BitBoard class is a compact engine for the 5x5 Clue-Less board.
+ *
+ * Every cell is numbered row * 5 + col, so any set of cells fits in one int with one bit per cell. Which cells
+ * exist, which are rooms, which cells each cell connects to and where the secret passages go are all worked out
+ * once into static tables. The only state a board keeps is the cell each piece stands on and a mask of the
+ * occupied hallways, so checking, making and listing moves is a few mask operations and never allocates.
+ *
+ * Pieces are numbered 0-5 in the same order as the suspects in net.Protocol.
+ */
+public final class BitBoard {
+
+    public static final int SIZE = 5;
+    public static final int CELL_COUNT = SIZE * SIZE;
+    public static final int PIECES = 6;
+
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    /** bit for the secret passage in a legalDirections mask */
+    public static final int PASSAGE = 4;
+
+    /** where a piece that isn't on the board is */
+    public static final int OFF_BOARD = -1;
+
+    /** every cell that is a room or a hallway, the four corners of the inner squares are empty */
+    public static final int CELLS;
+    /** the nine rooms, on the even rows and columns */
+    public static final int ROOMS;
+    /** the twelve hallways, which hold one piece at a time */
+    public static final int HALLWAYS;
+
+    /** NEIGHBORS[cell] is a mask of the cells one step away from cell */
+    private static final int[] NEIGHBORS = new int[CELL_COUNT];
+    /** STEPS[cell * 4 + direction] is the cell a step that way leads to, or OFF_BOARD */
+    private static final int[] STEPS = new int[CELL_COUNT * 4];
+    /** PASSAGES[cell] is the room the secret passage from cell leads to, or OFF_BOARD */
+    private static final int[] PASSAGES = new int[CELL_COUNT];
+
+    static {
+        int cells = 0;
+        int rooms = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (row % 2 == 0 || col % 2 == 0) {
+                    cells |= bit(cell(row, col));
+                }
+                if (row % 2 == 0 && col % 2 == 0) {
+                    rooms |= bit(cell(row, col));
+                }
+            }
+        }
+        CELLS = cells;
+        ROOMS = rooms;
+        HALLWAYS = cells & ~rooms;
+
+        int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // UP, DOWN, LEFT, RIGHT
+        Arrays.fill(STEPS, OFF_BOARD);
+        for (int from = 0; from < CELL_COUNT; from++) {
+            if ((CELLS & bit(from)) == 0) continue;
+            for (int direction = 0; direction < 4; direction++) {
+                int row = row(from) + offsets[direction][0];
+                int col = col(from) + offsets[direction][1];
+                if (row >= 0 && row < SIZE && col >= 0 && col < SIZE && (CELLS & bit(cell(row, col))) != 0) {
+                    STEPS[from * 4 + direction] = cell(row, col);
+                    NEIGHBORS[from] |= bit(cell(row, col));
+                }
+            }
+        }
+
+        Arrays.fill(PASSAGES, OFF_BOARD);
+        passage(cell(0, 0), cell(4, 4)); // Study and Kitchen
+        passage(cell(0, 4), cell(4, 0)); // Lounge and Conservatory
+    }
+
+    private final int[] pieceCells = new int[PIECES];
+    private int occupiedHallways = 0;
+
+    /**
+     * Creates a board with no pieces on it.
+     */
+    public BitBoard() {
+        Arrays.fill(pieceCells, OFF_BOARD);
+    }
+
+    /**
+     * Creates a board with the same pieces in the same places as another.
+     *
+     * @param other the board to copy
+     */
+    public BitBoard(BitBoard other) {
+        System.arraycopy(other.pieceCells, 0, pieceCells, 0, PIECES);
+        occupiedHallways = other.occupiedHallways;
+    }
+
+    /**
+     * @param row the row index
+     * @param col the column index
+     * @return the cell's number
+     */
+    public static int cell(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return the cell's row
+     */
+    public static int row(int cell) {
+        return cell / SIZE;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return the cell's column
+     */
+    public static int col(int cell) {
+        return cell % SIZE;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return a mask with only that cell in it
+     */
+    public static int bit(int cell) {
+        return 1 << cell;
+    }
+
+    /**
+     * @param row the row index
+     * @param col the column index
+     * @return true if there is a room or hallway there
+     */
+    public static boolean exists(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE && (CELLS & bit(cell(row, col))) != 0;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return true if the cell is a room rather than a hallway
+     */
+    public static boolean isRoom(int cell) {
+        return (ROOMS & bit(cell)) != 0;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return a mask of the cells next to it
+     */
+    public static int neighbors(int cell) {
+        return NEIGHBORS[cell];
+    }
+
+    /**
+     * @param cell a cell number
+     * @param direction UP, DOWN, LEFT or RIGHT
+     * @return the cell a step that way leads to, or OFF_BOARD
+     */
+    public static int step(int cell, int direction) {
+        return STEPS[cell * 4 + direction];
+    }
+
+    /**
+     * @param cell a cell number
+     * @return the room the secret passage from cell leads to, or OFF_BOARD
+     */
+    public static int passage(int cell) {
+        return PASSAGES[cell];
+    }
+
+    /**
+     * @param piece a piece number
+     * @return the cell the piece stands on, or OFF_BOARD
+     */
+    public int cellOf(int piece) {
+        return pieceCells[piece];
+    }
+
+    /**
+     * @return a mask of the hallways that already hold a piece
+     */
+    public int occupiedHallways() {
+        return occupiedHallways;
+    }
+
+    /**
+     * @param cell a cell number
+     * @return true if no piece could move there, because it is missing or a hallway that's already taken
+     */
+    public boolean isBlocked(int cell) {
+        return (CELLS & ~occupiedHallways & bit(cell)) == 0;
+    }
+
+    /**
+     * @param piece a piece number
+     * @param direction UP, DOWN, LEFT or RIGHT
+     * @return true if the piece can take a step that way
+     */
+    public boolean canMove(int piece, int direction) {
+        int from = pieceCells[piece];
+        if (from == OFF_BOARD) return false;
+        int to = STEPS[from * 4 + direction];
+        return to != OFF_BOARD && !isBlocked(to);
+    }
+
+    /**
+     * @param piece a piece number
+     * @return true if the piece stands in a room with a secret passage
+     */
+    public boolean canTakePassage(int piece) {
+        int from = pieceCells[piece];
+        return from != OFF_BOARD && PASSAGES[from] != OFF_BOARD;
+    }
+
+    /**
+     * Lists every cell a piece could end up on this turn, by a step or by a secret passage.
+     *
+     * @param piece a piece number
+     * @return a mask of the cells, empty if the piece is off the board or boxed in
+     */
+    public int legalMoves(int piece) {
+        int from = pieceCells[piece];
+        if (from == OFF_BOARD) return 0;
+        int moves = NEIGHBORS[from] & ~occupiedHallways;
+        int passage = PASSAGES[from];
+        if (passage != OFF_BOARD) {
+            moves |= bit(passage);
+        }
+        return moves;
+    }
+
+    /**
+     * Lists the moves a piece can make as directions rather than cells.
+     *
+     * @param piece a piece number
+     * @return bit 1 << direction for every direction it can step, and bit 1 << PASSAGE if it can take a secret
+     * passage
+     */
+    public int legalDirections(int piece) {
+        int from = pieceCells[piece];
+        if (from == OFF_BOARD) return 0;
+        int base = from * 4;
+        int directions = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int to = STEPS[base + direction];
+            if (to != OFF_BOARD && (occupiedHallways & bit(to)) == 0) {
+                directions |= 1 << direction;
+            }
+        }
+        if (PASSAGES[from] != OFF_BOARD) {
+            directions |= 1 << PASSAGE;
+        }
+        return directions;
+    }
+
+    /**
+     * Puts a piece on a cell without checking that it is reachable, for starting positions, suggestions and
+     * secret passages. A piece on the board already is picked up first.
+     *
+     * @param piece a piece number
+     * @param cell the cell to put it on
+     */
+    public void place(int piece, int cell) {
+        int from = pieceCells[piece];
+        if (from != OFF_BOARD) {
+            occupiedHallways &= ~(bit(from) & HALLWAYS);
+        }
+        pieceCells[piece] = cell;
+        occupiedHallways |= bit(cell) & HALLWAYS;
+    }
+
+    /**
+     * Takes a step if it is legal.
+     *
+     * @param piece a piece number
+     * @param to the cell to step on
+     * @return true if the piece moved, false if to isn't next to it or is a hallway that's taken
+     */
+    public boolean move(int piece, int to) {
+        int from = pieceCells[piece];
+        if (from == OFF_BOARD || (NEIGHBORS[from] & ~occupiedHallways & bit(to)) == 0) {
+            return false;
+        }
+        place(piece, to);
+        return true;
+    }
+
+    /**
+     * Takes a piece off the board.
+     *
+     * @param piece a piece number
+     */
+    public void remove(int piece) {
+        int from = pieceCells[piece];
+        if (from != OFF_BOARD) {
+            occupiedHallways &= ~(bit(from) & HALLWAYS);
+            pieceCells[piece] = OFF_BOARD;
+        }
+    }
+
+    private static void passage(int a, int b) {
+        PASSAGES[a] = b;
+        PASSAGES[b] = a;
+    }
+}
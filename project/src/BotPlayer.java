@@ -0,0 +1,236 @@
+import java.util.SplittableRandom;
+import net.Frame;
+import net.Message;
+import net.Opcode;
+import net.Protocol;
+import util.Cards;
+import util.DeductionEngine;
+
+/**
+ * The BotPlayer class is a computer player that sits at a GameSession like anyone else.
+ *
+ * It has no socket and no thread. The session hands it messages as objects, on the session's own actor, and the
+ * bot answers by queueing a command back on the same session, so a bot costs a few ints and a DeductionEngine
+ * and a server can seat thousands of them. Everything it knows comes from the same messages a client gets:
+ * its hand, where the pieces are, who could and couldn't disprove, and the cards it is shown.
+ *
+ * It walks towards rooms that could still be in the envelope, suggests suspects and weapons it hasn't ruled
+ * out, and accuses as soon as its notepad has one card of each kind left.
+ */
+public class BotPlayer implements Participant {
+
+    private final String characterName;
+    private final int character;
+    private final GameSession session;
+    private final SplittableRandom random = new SplittableRandom();
+
+    // only touched from the session's actor, one message at a time
+    private boolean eliminated = false;
+    private boolean myTurn = false;
+    private int cell = BitBoard.OFF_BOARD;
+    private int players = 0; // bit 1 << character for everyone at the table
+    private int lastSuggestion = 0; // Cards mask of the suggestion being disproved
+    private DeductionEngine deduction;
+
+    /**
+     * @param characterName the character the bot plays, already reserved at the session
+     * @param session the game the bot sits at
+     */
+    public BotPlayer(String characterName, GameSession session) {
+        this.characterName = characterName;
+        this.character = Protocol.cardId(characterName);
+        this.session = session;
+    }
+
+    @Override
+    public String getCharacterName() {
+        return characterName;
+    }
+
+    @Override
+    public boolean isEliminated() {
+        return eliminated;
+    }
+
+    @Override
+    public void setEliminated(boolean eliminated) {
+        this.eliminated = eliminated;
+    }
+
+    @Override
+    public void send(Frame frame) {
+        send(frame.getMessage()); // nothing to decode, the frame still has the message it came from
+    }
+
+    @Override
+    public void send(Message message) {
+        switch (message.getOpcode()) {
+            case ALL_POSITIONS -> {
+                int[] positions = message.getInts(1);
+                players = 0;
+                for (int i = 0; i + 2 < positions.length; i += 3) {
+                    players |= 1 << positions[i];
+                    if (positions[i] == character) {
+                        cell = BitBoard.cell(positions[i + 1], positions[i + 2]);
+                    }
+                }
+            }
+
+            case POSITION_DELTA -> {
+                if (message.getInt(1) == character) {
+                    cell = BitBoard.cell(message.getInt(4), message.getInt(5)); // pulled in by a suggestion
+                }
+            }
+
+            case YOUR_CARDS -> {
+                int hand = 0;
+                for (int card : message.getInts(0)) {
+                    hand |= Cards.bit(card);
+                }
+                deduction = new DeductionEngine(players | 1 << character, character, hand);
+            }
+
+            case YOUR_TURN -> myTurn = true;
+
+            case LEGAL_MOVES -> move(message.getInt(0));
+
+            case MOVED -> {
+                cell = BitBoard.cell(message.getInt(0), message.getInt(1));
+                if (message.getInt(2) == 1) {
+                    suggest(); // nobody prompts after a secret passage
+                } else if (!BitBoard.isRoom(cell)) {
+                    myTurn = false; // the session ends the turn after a step into a hallway
+                }
+            }
+
+            // the session refuses an END_TURN out of turn, so only send one on our own turn
+            case MOVE_FAILED, ERROR -> {
+                if (myTurn) endTurn();
+            }
+
+            case PROMPT_SUGGESTION -> suggest();
+
+            case SUGGESTION -> lastSuggestion = Cards.bit(message.getInt(1)) | Cards.bit(message.getInt(2))
+                    | Cards.bit(message.getInt(3));
+
+            case DISPROVE_RESULT -> {
+                int player = message.getInt(0);
+                if (deduction == null || lastSuggestion == 0 || player == character) break;
+                if (message.getInt(1) == 1) {
+                    deduction.showedCard(player, lastSuggestion);
+                } else {
+                    deduction.cannotDisprove(player, lastSuggestion);
+                }
+            }
+
+            case CARD_SHOWN -> {
+                if (deduction != null) {
+                    deduction.shownCard(message.getInt(0), message.getInt(1));
+                }
+            }
+
+            case DISPROVE_OPTIONS -> {
+                int[] options = message.getInts(0);
+                command(Message.of(Opcode.DISPROVE_SELECTED, options[random.nextInt(options.length)]));
+            }
+
+            case PROMPT_ACCUSATION_OR_END -> {
+                int solution = deduction == null ? 0 : deduction.solution();
+                if (solution != 0) {
+                    int[] cards = Cards.ids(solution); // suspect, weapon, room in id order
+                    myTurn = false;
+                    command(Message.of(Opcode.ACCUSE, cards[0], cards[1], cards[2]));
+                } else {
+                    endTurn();
+                }
+            }
+
+            case GAME_OVER -> {
+                myTurn = false;
+                deduction = null;
+            }
+
+            default -> {
+                // notices, errors and everything else a person would read
+            }
+        }
+    }
+
+    /**
+     * A bot has no connection to close.
+     */
+    @Override
+    public void disconnect() {
+    }
+
+    /**
+     * Takes one of the moves the session offered, into a room that could still be the answer if there is one.
+     *
+     * @param moves bit 1 << direction for each open direction, 1 << Protocol.PASSAGE for a secret passage
+     */
+    private void move(int moves) {
+        int candidates = deduction == null ? Cards.ALL : deduction.solutionCandidates();
+        int any = -1;
+        int anyCount = 0;
+        int room = -1;
+        int roomCount = 0;
+        for (int move = Protocol.UP; move <= Protocol.PASSAGE; move++) {
+            if (!Protocol.allows(moves, move)) continue;
+            // pick evenly among the moves of each kind, keeping each one with chance 1 / how many seen so far
+            if (random.nextInt(++anyCount) == 0) {
+                any = move;
+            }
+            int to = move == Protocol.PASSAGE ? BitBoard.passage(cell) : BitBoard.step(cell, move);
+            if (to != BitBoard.OFF_BOARD && BitBoard.isRoom(to)
+                    && (candidates & Cards.bit(SimulatedGame.roomCard(to))) != 0
+                    && random.nextInt(++roomCount) == 0) {
+                room = move;
+            }
+        }
+
+        int best = room >= 0 ? room : any;
+        if (best == Protocol.PASSAGE) {
+            command(Message.of(Opcode.SECRET_PASSAGE));
+        } else if (best >= 0) {
+            command(Message.of(Opcode.MOVE_DIRECTION, best));
+        } else if (cell != BitBoard.OFF_BOARD && BitBoard.isRoom(cell)) {
+            suggest(); // boxed in, but a room is a fine place to suggest from
+        } else {
+            endTurn();
+        }
+    }
+
+    /**
+     * Suggests a suspect and a weapon that could still be in the envelope.
+     */
+    private void suggest() {
+        int candidates = deduction == null ? Cards.ALL : deduction.solutionCandidates();
+        command(Message.of(Opcode.SUGGEST, pick(candidates & Cards.SUSPECTS, Cards.SUSPECTS),
+                pick(candidates & Cards.WEAPONS, Cards.WEAPONS)));
+    }
+
+    /**
+     * @param cards Cards mask to pick from
+     * @param group the whole group, used when cards is empty
+     * @return a random card id from the mask
+     */
+    private int pick(int cards, int group) {
+        int[] ids = Cards.ids(cards != 0 ? cards : group);
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private void endTurn() {
+        myTurn = false;
+        command(Message.of(Opcode.END_TURN));
+    }
+
+    /**
+     * Queues a command at the session. It runs after whatever the session is doing now, so a bot never calls
+     * back into a command that is still running.
+     *
+     * @param command the command
+     */
+    private void command(Message command) {
+        session.handle(this, command);
+    }
+}
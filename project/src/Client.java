@@ -2,8 +2,6 @@ import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.URISyntaxException;
@@ -14,8 +12,14 @@ import javax.sound.sampled.*;
 import javax.swing.*;
 import javax.swing.Timer;
 import javax.swing.table.DefaultTableModel;
+import net.Message;
+import net.MessageReader;
+import net.MessageWriter;
+import net.Opcode;
+import net.Protocol;
 import ui.Leaderboard;
-import util.Commands;
+import util.Cards;
+import util.DeductionEngine;
 
 
 
@@ -36,28 +40,28 @@ import util.Commands;
 public class Client extends JFrame {
     // networking parts
     private String[] scrambles = new String[5];
-    private boolean haveScramble = false;
     private int clientScore = 0;
     private int clientRound = 1;
-    private ObjectOutputStream outputStream;
-    private ObjectInputStream inputStream;
+    private MessageWriter outputStream;
+    private MessageReader inputStream;
     private Socket client;
     private final String chatServer;
     private final Set<String> wordsGuessed = new HashSet<>();
-    private String message = "";
     private JComboBox<String> characterDropdown;
     private boolean isEliminated = false;
-    private final Set<Point> secretPassageRooms = Set.of(
-            new Point(0, 0), // Study
-            new Point(0, 4), // Lounge
-            new Point(4, 0), // Conservatory
-            new Point(4, 4)  // Kitchen
-    );
     private int currentPlayerRow = -1;
     private int currentPlayerCol = -1;
+    // the board as the server last described it, only touched on the event dispatch thread
+    private final Map<String, Point> pieces = new HashMap<>(); // character -> cell
+    private int boardVersion = -1; // version of the last snapshot or delta applied
+    private boolean resyncRequested = false;
     private String myCards = "";
     private final java.util.List<String> detectiveNotes = new ArrayList<>();
     private final Map<String, Map<String, Boolean>> detectiveTable = new HashMap<>();
+    // fills in the notepad from what the server tells everyone, only touched on the event dispatch thread
+    private DeductionEngine deduction;
+    private int myCharacter = -1;
+    private int lastSuggestion = 0; // Cards mask of the suggestion being disproved
 
 
 
@@ -80,6 +84,7 @@ public class Client extends JFrame {
     private final JButton displayRules;
     private JScrollPane scrollPane;
     private JButton secretPassageButton;
+    private final JButton[] moveButtons = new JButton[4]; // indexed by Protocol.UP, DOWN, LEFT and RIGHT
     private final JButton makeSuggestionButton = new JButton("Make Suggestion");
     private final JButton makeAccusationButton = new JButton("Make Accusation");
     private JButton myCardsButton;
@@ -183,18 +188,22 @@ public class Client extends JFrame {
         JButton upButton = new JButton("Up");
         upButton.setBounds(25, 400, 100, 25);
         add(upButton);
+        moveButtons[Protocol.UP] = upButton;
 
         JButton downButton = new JButton("Down");
         downButton.setBounds(25, 430, 100, 25);
         add(downButton);
+        moveButtons[Protocol.DOWN] = downButton;
 
         JButton leftButton = new JButton("Left");
         leftButton.setBounds(25, 460, 100, 25);
         add(leftButton);
+        moveButtons[Protocol.LEFT] = leftButton;
 
         JButton rightButton = new JButton("Right");
         rightButton.setBounds(25, 490, 100, 25);
         add(rightButton);
+        moveButtons[Protocol.RIGHT] = rightButton;
 
 //        JButton secretPassageButton = new JButton("Secret Passage");
         secretPassageButton = new JButton("Secret Passage");
@@ -203,26 +212,26 @@ public class Client extends JFrame {
 
         secretPassageButton.addActionListener(e -> {
             System.out.println("Sending command: SECRET_PASSAGE");
-            sendData("SECRET_PASSAGE");
+            sendData(Message.of(Opcode.SECRET_PASSAGE));
         });
 
 
         // Add Action Listeners
         upButton.addActionListener(e -> {
             System.out.println("Sending move command: MOVE_DIRECTION UP");
-            sendData("MOVE_DIRECTION UP");
+            sendData(Message.of(Opcode.MOVE_DIRECTION, Protocol.UP));
         });
         downButton.addActionListener(e -> {
             System.out.println("Sending move command: MOVE_DIRECTION DOWN");
-            sendData("MOVE_DIRECTION DOWN");
+            sendData(Message.of(Opcode.MOVE_DIRECTION, Protocol.DOWN));
         });
         leftButton.addActionListener(e -> {
             System.out.println("Sending move command: MOVE_DIRECTION LEFT");
-            sendData("MOVE_DIRECTION LEFT");
+            sendData(Message.of(Opcode.MOVE_DIRECTION, Protocol.LEFT));
         });
         rightButton.addActionListener(e -> {
             System.out.println("Sending move command: MOVE_DIRECTION RIGHT");
-            sendData("MOVE_DIRECTION RIGHT");
+            sendData(Message.of(Opcode.MOVE_DIRECTION, Protocol.RIGHT));
         });
 
 
@@ -325,12 +334,18 @@ public class Client extends JFrame {
         joinGameButton.addActionListener(e -> {
             String selected = (String) characterDropdown.getSelectedItem();
             name = selected;
-            sendData("JOIN " + selected);
+            sendData(Message.of(Opcode.JOIN, Protocol.cardId(selected)));
             myCardsButton.setVisible(true);
             detectiveNotePad.setVisible(true);
             boardPanel.setVisible(true); //
         });
 
+        // seats a bot at our table, for when nobody else is around to play
+        JButton addBotButton = new JButton("Add Bot");
+        addBotButton.setBounds(600, 205, 150, 25);
+        add(addBotButton);
+        addBotButton.addActionListener(e -> sendData(Message.of(Opcode.ADD_BOT)));
+
         makeSuggestionButton.addActionListener(e -> {
             this.playerMakesSuggestion();
         });
@@ -369,7 +384,8 @@ public class Client extends JFrame {
                 String weapon = (String) weaponDropdown.getSelectedItem();
                 String room = (String) roomDropdown.getSelectedItem();
 
-                sendData("ACCUSE " + suspect + " " + weapon + " " + room);
+                sendData(Message.of(Opcode.ACCUSE,
+                        Protocol.cardId(suspect), Protocol.cardId(weapon), Protocol.cardId(room)));
             }
         });
 
@@ -535,7 +551,7 @@ public class Client extends JFrame {
             guess = guess.replace("!", "").replace("?", "").replace("#", "");// replace code characters
             if (!wordsGuessed.contains(guess) && !guess.isEmpty()) {
                 wordsGuessed.add(guess);
-                sendData("?" + scrambles[clientRound - 1] + " " + guess);
+                sendData(Message.of(Opcode.SCORE_WORD, scrambles[clientRound - 1], guess));
             }
             textField.setText("");
         });
@@ -547,7 +563,7 @@ public class Client extends JFrame {
         });
 
         exitTheApplicationButton.addActionListener(e -> {
-            sendData(Commands.PLAYER_LEFT.toString());
+            sendData(Message.of(Opcode.PLAYER_LEFT));
             System.exit(0);
         });
 
@@ -683,7 +699,9 @@ public class Client extends JFrame {
             startRound();
         });
 
-        displayLeaderboard.addActionListener(e -> sendData(Commands.GET_LEADERBOARD.toString()));
+        // just the rows around our own best score, the whole history could be far too long to send
+        displayLeaderboard.addActionListener(e -> sendData(Message.of(Opcode.GET_LEADERBOARD_AROUND, name,
+                Leaderboard.ROWS)));
     }
 
     private void playerMakesSuggestion() {
@@ -722,7 +740,7 @@ public class Client extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             String suspect = (String) suspectDropdown.getSelectedItem();
             String weapon = (String) weaponDropdown.getSelectedItem();
-            sendData("SUGGEST " + suspect + " " + weapon);
+            sendData(Message.of(Opcode.SUGGEST, Protocol.cardId(suspect), Protocol.cardId(weapon)));
         }
     }
 
@@ -734,9 +752,8 @@ public class Client extends JFrame {
         try {
             client = new Socket(InetAddress.getByName(chatServer), 23625); // port might need to be changed
 
-            outputStream = new ObjectOutputStream(client.getOutputStream());
-            outputStream.flush();
-            inputStream = new ObjectInputStream(client.getInputStream());
+            outputStream = new MessageWriter(client.getOutputStream());
+            inputStream = new MessageReader(client.getInputStream());
 
             processConnection();
         } catch (IOException e) {
@@ -746,6 +763,44 @@ public class Client extends JFrame {
         }
     }
 
+    /**
+     * Starts deducing from my hand. The board snapshot comes before the cards, so pieces already has everyone.
+     * Must be called on the event dispatch thread.
+     *
+     * @param hand Cards mask of the cards I was dealt
+     */
+    private void startDeduction(int hand) {
+        if (myCharacter < 0) return;
+        int players = 1 << myCharacter;
+        for (String character : pieces.keySet()) {
+            players |= 1 << Protocol.cardId(character);
+        }
+        deduction = new DeductionEngine(players, myCharacter, hand);
+        fillDetectiveTable();
+    }
+
+    /**
+     * Writes everything the deduction engine is sure of into the notepad: a check where a player or the envelope
+     * must hold a card, a cross where they can't. Cells it isn't sure of keep whatever the player wrote.
+     * Must be called on the event dispatch thread.
+     */
+    private void fillDetectiveTable() {
+        for (int card = 0; card < Cards.COUNT; card++) {
+            Map<String, Boolean> row = detectiveTable.computeIfAbsent(Cards.name(card), k -> new HashMap<>());
+            for (int owner = 0; owner <= DeductionEngine.ENVELOPE; owner++) {
+                int possible = deduction.getPossible(owner);
+                if (owner != DeductionEngine.ENVELOPE && possible == 0) continue; // not playing
+                String column = owner == DeductionEngine.ENVELOPE ? "Solution"
+                        : owner == myCharacter ? "Me" : Cards.name(owner);
+                if ((deduction.getHeld(owner) & Cards.bit(card)) != 0) {
+                    row.put(column, true);
+                } else if ((possible & Cards.bit(card)) == 0) {
+                    row.put(column, false);
+                }
+            }
+        }
+    }
+
     private void startNewGame() {
         String[] options = {"Yes", "No"};
         int choice = JOptionPane.showOptionDialog(
@@ -763,7 +818,7 @@ public class Client extends JFrame {
             System.out.println("Joining a new game");
         } else if (choice == 1) { // Quitting server
             System.out.println("Leaving game");
-            sendData(Commands.PLAYER_LEFT.toString());
+            sendData(Message.of(Opcode.PLAYER_LEFT));
             System.exit(0);
         }
     }
@@ -773,74 +828,68 @@ public class Client extends JFrame {
      * @throws IOException if an I/O error occurs when reading server messages
      */
     private void processConnection() throws IOException {
-        sendData(Commands.PLAYER_JOINED.toString());
-
-        do { // process message
-            try {
-                if (haveScramble) {
-                    message = (String) inputStream.readObject();
-                }else {
-                    scrambles = (String[]) inputStream.readObject();
-                    haveScramble = true;
-                    continue; // skip rest of loop, no message to process
-                }
+        sendData(Message.of(Opcode.PLAYER_JOINED));
+
+        while (true) { // process message
+            Message message = inputStream.read();
 
-                if (!message.isEmpty() && message.charAt(0) == '!') {
-                    clientScore += Integer.parseInt(message.replace("!", ""));
+            switch (message.getOpcode()) {
+                case SCRAMBLES -> scrambles = message.getStrings(0);
+
+                case WORD_SCORE -> {
+                    clientScore += message.getInt(0);
                     clientScoreLabel.setText("Current Score: " + clientScore);
                 }
 
-                if (!message.isEmpty() && message.charAt(0) == '#') {
-                    String leaderboard = message.replace("#", "");
-                    Leaderboard application = new Leaderboard(leaderboard);
+                case LEADERBOARD -> {
+                    Leaderboard application = new Leaderboard(message.getString(0));
                     application.setSize(400, 600);
                     application.setLocationRelativeTo(null);
                     application.setTitle("Leaderboard");
                     application.setVisible(true);
                 }
 
-                if (message.contains("suggests:")) {
+                case LEADERBOARD_PAGE -> {
+                    Leaderboard application = new Leaderboard(message.getInt(0), message.getStrings(2));
+                    application.setSize(400, 600);
+                    application.setLocationRelativeTo(null);
+                    application.setTitle("Leaderboard (" + message.getInt(1) + " scores)");
+                    application.setVisible(true);
+                }
+
+                case SUGGESTION -> {
+                    int suggestion = Cards.bit(message.getInt(1)) | Cards.bit(message.getInt(2))
+                            | Cards.bit(message.getInt(3));
+                    SwingUtilities.invokeLater(() -> lastSuggestion = suggestion);
                     JOptionPane.showMessageDialog(this,
-                            message,
+                            Protocol.cardName(message.getInt(0)) + " suggests: " + Protocol.cardName(message.getInt(1))
+                                    + " with the " + Protocol.cardName(message.getInt(2))
+                                    + " in the " + Protocol.cardName(message.getInt(3)),
                             "New Suggestion Made",
                             JOptionPane.INFORMATION_MESSAGE);
                 }
 
+                case DISPROVE_RESULT -> {
+                    int player = message.getInt(0);
+                    boolean showed = message.getInt(1) == 1;
+                    System.out.println(Protocol.cardName(player) + (showed
+                            ? " disproved the suggestion by showing a card."
+                            : " cannot disprove the suggestion."));
+                    SwingUtilities.invokeLater(() -> {
+                        if (deduction == null) return;
+                        if (showed) {
+                            // I was the one who showed it, my own hand already says which cards I hold
+                            if (player != myCharacter) deduction.showedCard(player, lastSuggestion);
+                        } else {
+                            deduction.cannotDisprove(player, lastSuggestion);
+                        }
+                        fillDetectiveTable();
+                    });
+                }
 
-//                if (message.startsWith("You WON!")) {
-//                    JOptionPane.showMessageDialog(this, message, "🎉 You Won the Game!", JOptionPane.INFORMATION_MESSAGE);
-//
-//                    // Disable buttons because game is over
-//                    makeSuggestionButton.setEnabled(false);
-//                    makeAccusationButton.setEnabled(false);
-//                    secretPassageButton.setEnabled(false);
-//
-//
-//                    int response = JOptionPane.showConfirmDialog(
-//                            this,
-//                            "Would you like to play again?",
-//                            "Play Again?",
-//                            JOptionPane.YES_NO_OPTION
-//                    );
-//
-//                    if (response == JOptionPane.YES_OPTION) {
-//                        this.dispose(); // Close the current window
-//                        Client newClient = new Client(chatServer); // Create a fresh client
-//                        newClient.setTitle("Client - New Game");
-//                        newClient.setSize(800, 600);
-//                        newClient.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-//                        newClient.setVisible(true);
-//                        newClient.setResizable(false);
-//                        newClient.setLocationRelativeTo(null);
-//                        newClient.runClient(); // Reconnect to server
-//                    } else {
-//                        sendData(Commands.PLAYER_LEFT.toString());
-//                        System.exit(0);
-//                    }
-//                }
-
-                if (message.startsWith("You WON!")) {
-                    JOptionPane.showMessageDialog(this, message, "🎉 You Won the Game!", JOptionPane.INFORMATION_MESSAGE);
+                case YOU_WON -> {
+                    JOptionPane.showMessageDialog(this, "You WON! Everyone else has been eliminated.",
+                            "🎉 You Won the Game!", JOptionPane.INFORMATION_MESSAGE);
 
                     makeSuggestionButton.setEnabled(false);
                     makeAccusationButton.setEnabled(false);
@@ -849,21 +898,23 @@ public class Client extends JFrame {
                     return;
                 }
 
-
-                if (message.startsWith("ERROR You are eliminated.")) {
+                case ELIMINATED -> {
                     handleElimination();
+                    JOptionPane.showMessageDialog(this, "You are eliminated. You can still observe the game.",
+                            "Game Error", JOptionPane.ERROR_MESSAGE);
                 }
 
-                if (message.startsWith("Your accusation was incorrect")) {
-                    JOptionPane.showMessageDialog(this, message, "❌ Incorrect Accusation", JOptionPane.WARNING_MESSAGE);
+                case ACCUSATION_RESULT -> {
+                    if (message.getInt(0) == 0) {
+                        JOptionPane.showMessageDialog(this, "Your accusation was incorrect. You are now eliminated.",
+                                "❌ Incorrect Accusation", JOptionPane.WARNING_MESSAGE);
+                    }
                 }
 
-
-                if (message.equals("YOUR_TURN")) {
-                    // Enable your move, suggest, and accuse buttons
+                case YOUR_TURN -> {
+                    // Enable your suggest and accuse buttons, LEGAL_MOVES comes next for the move buttons
                     makeSuggestionButton.setEnabled(true);
                     makeAccusationButton.setEnabled(true);
-                    secretPassageButton.setEnabled(true);
 
                     JOptionPane.showMessageDialog(this,
                             "It's your turn!💃🕺",
@@ -874,8 +925,8 @@ public class Client extends JFrame {
                     Toolkit.getDefaultToolkit().beep();
                 }
 
-                if (message.startsWith("GAME_OVER")) {
-                    String winner = message.substring("GAME_OVER".length()).trim();
+                case GAME_OVER -> {
+                    String winner = message.getString(0);
                     JOptionPane.showMessageDialog(this,
                             "🏆 " + winner + " has won the game! 🏆.",
                             "Game Over",
@@ -884,103 +935,85 @@ public class Client extends JFrame {
                     return;
                 }
 
+                case PROMPT_SUGGESTION -> SwingUtilities.invokeLater(() -> {
+                    detectiveNotePad.doClick(); // <-- open Detective Notepad automatically
+                    makeSuggestionButton.doClick(); // <-- then pop the Suggestion menu
+                });
+
+                case PROMPT_ACCUSATION_OR_END -> SwingUtilities.invokeLater(() -> {
+                    int response = JOptionPane.showOptionDialog(
+                            this,
+                            "Would you like to make an accusation or end your turn?",
+                            "Choose an Action",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE,
+                            null,
+                            new String[]{"Make Accusation", "End Turn"},
+                            "End Turn"
+                    );
 
-                if (message.equals("PROMPT_SUGGESTION")) {
-                    SwingUtilities.invokeLater(() -> {
-                        detectiveNotePad.doClick(); // <-- open Detective Notepad automatically
-                        makeSuggestionButton.doClick(); // <-- then pop the Suggestion menu
-                    });
-                }
-
+                    if (response == JOptionPane.YES_OPTION) {
+                        makeAccusationButton.doClick(); // auto-clicks the Accusation button
+                    } else {
+                        sendData(Message.of(Opcode.END_TURN)); // Send new command to the server
+                    }
+                });
 
+                case LOCATION -> {
+                    int row = message.getInt(0);
+                    int col = message.getInt(1);
 
-                if (message.equals("SUGGESTION_NOT_DISPROVED_BY_PREVIOUS")) {
-                    JOptionPane.showMessageDialog(this,
-                            "The player before you could not disprove your suggestion.",
-                            "Suggestion Not Disproved",
-                            JOptionPane.INFORMATION_MESSAGE);
+                    SwingUtilities.invokeLater(() -> movePiece(name, row, col));
+                    JOptionPane.showMessageDialog(this, "You are at [" + row + "," + col + "]",
+                            "Location", JOptionPane.INFORMATION_MESSAGE);
                 }
 
-                if (message.equals("PROMPT_ACCUSATION_OR_END")) {
-                    SwingUtilities.invokeLater(() -> {
-                        int response = JOptionPane.showOptionDialog(
-                                this,
-                                "Would you like to make an accusation or end your turn?",
-                                "Choose an Action",
-                                JOptionPane.YES_NO_OPTION,
-                                JOptionPane.QUESTION_MESSAGE,
-                                null,
-                                new String[]{"Make Accusation", "End Turn"},
-                                "End Turn"
-                        );
-
-                        if (response == JOptionPane.YES_OPTION) {
-                            makeAccusationButton.doClick(); // auto-clicks the Accusation button
-                        } else {
-                            sendData("END_TURN"); // Send new command to the server
-                        }
-                    });
+                case LEGAL_MOVES -> {
+                    int moves = message.getInt(0);
+                    SwingUtilities.invokeLater(() -> showLegalMoves(moves));
                 }
 
-
-
-                //  NEW: Handle custom game messages from Clue-Less server
-                if (message.startsWith("LOCATION")) {
-                    // Format: "LOCATION Ballroom [2,2]"
-                    String[] parts = message.split(" ");
-                    String[] coords = parts[2].replace("[", "").replace("]", "").split(",");
-                    int row = Integer.parseInt(coords[0]);
-                    int col = Integer.parseInt(coords[1]);
-
-                    updateBoard(name, row, col);
-                    JOptionPane.showMessageDialog(this, message, "Location", JOptionPane.INFORMATION_MESSAGE);
+                case MOVED -> {
+                    SwingUtilities.invokeLater(() -> showLegalMoves(0)); // one move a turn
+                    if (message.getInt(2) == 1) {
+                        // prompt for immediate suggestion if using secret passage to move player
+                        this.playerMakesSuggestion();
+                    }
                 }
 
-                if (message.startsWith("MOVED false")) {
-                    JOptionPane.showMessageDialog(this, message, "Move Result", JOptionPane.INFORMATION_MESSAGE);
-                }
+                case MOVE_FAILED -> JOptionPane.showMessageDialog(this, "MOVED false (" + message.getString(0) + ")",
+                        "Move Result", JOptionPane.INFORMATION_MESSAGE);
 
-                if (message.startsWith("JOINED") || message.startsWith("FAILED")) {
-                    JOptionPane.showMessageDialog(this, message, "Join Result", JOptionPane.INFORMATION_MESSAGE);
+                case JOINED -> {
+                    int character = message.getInt(0);
+                    SwingUtilities.invokeLater(() -> myCharacter = character);
+                    JOptionPane.showMessageDialog(this, "JOINED " + Protocol.cardName(character),
+                            "Join Result", JOptionPane.INFORMATION_MESSAGE);
                 }
 
-                if (message.startsWith("ERROR")) {
-                    JOptionPane.showMessageDialog(this, message, "Game Error", JOptionPane.ERROR_MESSAGE);
-                }
+                case JOIN_FAILED -> JOptionPane.showMessageDialog(this, "FAILED JOIN: " + message.getString(0),
+                        "Join Result", JOptionPane.INFORMATION_MESSAGE);
 
-                if (message.startsWith("ALL_POSITIONS")) {
-                    // First, clear all initials from the board
-                    for (int r = 0; r < BOARD_SIZE; r++) {
-                        for (int c = 0; c < BOARD_SIZE; c++) {
-                            JLabel label = boardLabels[r][c];
-                            if (label != null && label.getText() != null && label.getText().contains("(")) {
-                                String text = label.getText();
-                                if (text.contains("<br>")) {
-                                    // HTML format (room)
-                                    text = text.substring(0, text.indexOf("<br>"));
-                                    label.setText(text);
-                                } else if (text.contains(" (")) {
-                                    // Plain format (hallway)
-                                    label.setText(text.substring(0, text.indexOf(" (")));
-                                }
-                            }
-                        }
-                    }
+                case ERROR -> JOptionPane.showMessageDialog(this, "ERROR " + message.getString(0),
+                        "Game Error", JOptionPane.ERROR_MESSAGE);
 
-                    // Then, re-add every player properly
-                    String[] parts = message.split(" ");
-                    for (int i = 1; i < parts.length; i++) {
-                        String[] tokens = parts[i].split(",");
-                        String playerName = tokens[0];
-                        int row = Integer.parseInt(tokens[1]);
-                        int col = Integer.parseInt(tokens[2]);
-                        updateBoard(playerName, row, col);  // use the correct playerName
-                    }
+                case ALL_POSITIONS -> {
+                    int version = message.getInt(0);
+                    int[] positions = message.getInts(1);
+                    SwingUtilities.invokeLater(() -> applySnapshot(version, positions));
                 }
 
+                case POSITION_DELTA -> SwingUtilities.invokeLater(() -> applyDelta(message));
 
-                if (message.startsWith("YOUR_CARDS")) {
-                    String cardsList = message.substring("YOUR_CARDS".length()).trim();
+                case YOUR_CARDS -> {
+                    String[] myOwnCards = Protocol.cardNames(message.getInts(0));
+                    int hand = 0;
+                    for (int card : message.getInts(0)) {
+                        hand |= Cards.bit(card);
+                    }
+                    int myHand = hand;
+                    SwingUtilities.invokeLater(() -> startDeduction(myHand));
+                    String cardsList = Arrays.toString(myOwnCards);
                     myCards = cardsList; // Save the cards for later
 
                     // ✨ NEW: Populate ALL possible cards into detectiveTable
@@ -997,23 +1030,17 @@ public class Client extends JFrame {
                     }
 
                     //  Mark "Me" as owning only the cards I actually have
-                    String[] myOwnCards = cardsList.replace("[", "").replace("]", "").split(",");
                     for (String card : myOwnCards) {
-                        card = card.trim();
-                        if (!card.isEmpty()) {
-                            detectiveTable.get(card).put("Me", true); // ✅ check mark only my cards
-                        }
+                        detectiveTable.get(card).put("Me", true); // ✅ check mark only my cards
                     }
 
                     JOptionPane.showMessageDialog(this, "Your cards are:\n" + cardsList,
                             "Your Cards", JOptionPane.INFORMATION_MESSAGE);
                 }
 
-
-                if (message.contains("showed you:")) {
-                    String[] parts = message.split("showed you:");
-                    String disapprovingPlayer = parts[0].trim();
-                    String shownCard = parts[1].trim();
+                case CARD_SHOWN -> {
+                    String disapprovingPlayer = Protocol.cardName(message.getInt(0));
+                    String shownCard = Protocol.cardName(message.getInt(1));
 
                     // Create a detective note entry like "MrsWhite: Revolver"
                     String detectiveEntry = disapprovingPlayer + ": " + shownCard;
@@ -1023,8 +1050,16 @@ public class Client extends JFrame {
                     }
 
                     //  NEW: Update detectiveTable
-                    detectiveTable.putIfAbsent(shownCard, new HashMap<>()); // just in case
-                    detectiveTable.get(shownCard).put(disapprovingPlayer, true); //  check mark under that player
+                    int player = message.getInt(0);
+                    int card = message.getInt(1);
+                    SwingUtilities.invokeLater(() -> {
+                        detectiveTable.putIfAbsent(shownCard, new HashMap<>()); // just in case
+                        detectiveTable.get(shownCard).put(disapprovingPlayer, true); //  check mark under that player
+                        if (deduction != null) {
+                            deduction.shownCard(player, card);
+                            fillDetectiveTable();
+                        }
+                    });
 
                     JOptionPane.showMessageDialog(this,
                             disapprovingPlayer + " disproved your suggestion by showing you: " + shownCard,
@@ -1032,35 +1067,29 @@ public class Client extends JFrame {
                             JOptionPane.INFORMATION_MESSAGE);
                 }
 
+                case DISPROVE_OPTIONS -> SwingUtilities.invokeLater(() -> {
+                    detectiveNotePad.doClick(); // <-- pop open the Detective Notes first
+
+                    String[] options = Protocol.cardNames(message.getInts(0));
+                    String selectedCard = (String) JOptionPane.showInputDialog(
+                            this,
+                            "Choose a card to disprove the suggestion:",
+                            "Disprove Suggestion",
+                            JOptionPane.PLAIN_MESSAGE,
+                            null,
+                            options,
+                            options[0]
+                    );
+                    if (selectedCard != null) {
+                        sendData(Message.of(Opcode.DISPROVE_SELECTED, Protocol.cardId(selectedCard)));
+                    }
+                });
 
-                if (message.startsWith("DISPROVE_OPTIONS")) {
-                    SwingUtilities.invokeLater(() -> {
-                        detectiveNotePad.doClick(); // <-- pop open the Detective Notes first
-
-                        String[] options = message.substring("DISPROVE_OPTIONS".length()).trim().split(",");
-                        String selectedCard = (String) JOptionPane.showInputDialog(
-                                this,
-                                "Choose a card to disprove the suggestion:",
-                                "Disprove Suggestion",
-                                JOptionPane.PLAIN_MESSAGE,
-                                null,
-                                options,
-                                options[0]
-                        );
-                        if (selectedCard != null) {
-                            sendData("DISPROVE_SELECTED " + selectedCard);
-                        }
-                    });
-                }
+                case NOTICE -> System.out.println(message.getString(0));
 
-                if (message.endsWith("secret passage")) {
-                    // prompt for immediate suggestion if using secret passage to move player
-                    this.playerMakesSuggestion();
-                }
-            } catch (ClassNotFoundException classNotFoundException) {
-                classNotFoundException.printStackTrace();
+                default -> System.out.println("Unexpected message from server: " + message);
             }
-        } while (!message.equals("SERVER >>> TERMINATE"));
+        }
     }
 
     /**
@@ -1079,12 +1108,11 @@ public class Client extends JFrame {
     /**
      * Sends a message (command or data) to the server through the output stream.
      *
-     * @param message the text message to be sent to the server
+     * @param message the message to be sent to the server
      */
-    private void sendData(String message) {
+    private void sendData(Message message) {
         try {
-            outputStream.writeObject(message);
-            outputStream.flush(); // flush data to output
+            outputStream.write(message);
         } catch (IOException ioException) {
             ioException.printStackTrace();
         }
@@ -1137,7 +1165,7 @@ public class Client extends JFrame {
      * to continue to the next scramble or exit to the main menu.
      */
     private void endRound() {
-        sendData("#" + name + " " + clientScore + " " + clientRound);
+        sendData(Message.of(Opcode.SUBMIT_SCORE, name, clientScore, clientRound));
 
         continueToNextRoundButton.setVisible(clientRound < 5);
 
@@ -1363,51 +1391,110 @@ public class Client extends JFrame {
     }
 
     /**
-     * Updates the visual position of a player on the board based on their row and column.
+     * Replaces every piece on the board with a full snapshot from the server. Snapshots only come on join and
+     * when the client asks to resync, so redrawing the whole board here is fine.
      *
-     * @param playerName the name of the player to update
-     * @param row the new row position
-     * @param col the new column position
+     * @param version board version the snapshot was taken at
+     * @param positions character, row and column of every player
      */
-    private void updateBoard(String playerName, int row, int col) {
+    private void applySnapshot(int version, int[] positions) {
+        pieces.clear();
+        for (int i = 0; i + 2 < positions.length; i += 3) {
+            pieces.put(Protocol.cardName(positions[i]), new Point(positions[i + 1], positions[i + 2]));
+        }
+        boardVersion = version;
+        resyncRequested = false;
 
-        JLabel current = boardLabels[row][col];
-        if (current == null) return;
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                renderCell(r, c);
+            }
+        }
+        Point mine = pieces.get(name);
+        if (mine != null) {
+            movedMyPiece(mine.x, mine.y);
+        }
+    }
 
-        String initials = getInitials(playerName);
-        String tooltip = current.getToolTipText();
+    /**
+     * Applies one move from the server, redrawing only the cell the piece left and the cell it entered.
+     * If a delta was missed the board can't be trusted any more, so a fresh snapshot is asked for instead.
+     *
+     * @param delta the POSITION_DELTA message
+     */
+    private void applyDelta(Message delta) {
+        int version = delta.getInt(0);
+        if (version <= boardVersion) {
+            return; // already part of a newer snapshot
+        }
 
-        if (playerName.equals(name)) {
-            currentPlayerRow = row;
-            currentPlayerCol = col;
+        String playerName = Protocol.cardName(delta.getInt(1));
+        Point from = pieces.get(playerName);
+        boolean inOrder = version == boardVersion + 1
+                && from != null && from.x == delta.getInt(2) && from.y == delta.getInt(3);
+        if (!inOrder) {
+            if (!resyncRequested) {
+                resyncRequested = true;
+                sendData(Message.of(Opcode.RESYNC));
+            }
+            return;
+        }
+
+        boardVersion = version;
+        movePiece(playerName, delta.getInt(4), delta.getInt(5));
+    }
 
-            boolean inSecretPassageRoom = secretPassageRooms.contains(new Point(row, col));
-            secretPassageButton.setEnabled(inSecretPassageRoom);
+    /**
+     * Moves one piece and redraws the two cells involved.
+     *
+     * @param playerName the name of the character that moved
+     * @param row the row the piece is now in
+     * @param col the column the piece is now in
+     */
+    private void movePiece(String playerName, int row, int col) {
+        Point old = pieces.put(playerName, new Point(row, col));
+        if (old != null) {
+            renderCell(old.x, old.y);
         }
+        renderCell(row, col);
 
+        if (playerName.equals(name)) {
+            movedMyPiece(row, col);
+        }
+    }
 
-        if ("Hallway".equals(tooltip)) {
-            // Inline initials for hallway
-            String base = current.getText() != null ? current.getText().split(" ")[0] : "Hallway";
-            current.setText(base + " (" + initials + ")");
-        } else {
-            // Show initials below the room name using HTML
-            String existing = current.getText();
-            String roomName = existing.contains("<br>") ? existing.substring(0, existing.indexOf("<br>")) : existing;
-            String initialLine = existing.contains("<br>") ? existing.substring(existing.indexOf("<br>") + 4) : "";
+    private void movedMyPiece(int row, int col) {
+        currentPlayerRow = row;
+        currentPlayerCol = col;
+        // the passage button is left alone, only LEGAL_MOVES says whether it can be used
+    }
 
+    /**
+     * Sets a cell's label from the room name and the initials of every piece in it.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    private void renderCell(int row, int col) {
+        JLabel current = boardLabels[row][col];
+        if (current == null || current.getToolTipText() == null) return; // unused square
 
-            Set<String> initialsSet = new HashSet<>();
-            for (String s : initialLine.replace("(", "").replace(")", "").split(", ")) {
-                if (!s.trim().isEmpty()) {
-                    initialsSet.add(s.trim());
-                }
+        List<String> initials = new ArrayList<>();
+        for (Map.Entry<String, Point> piece : pieces.entrySet()) {
+            if (piece.getValue().x == row && piece.getValue().y == col) {
+                initials.add(getInitials(piece.getKey()));
             }
-            initialsSet.add(initials);
-
-            String joinedInitials = String.join(", ", initialsSet);
+        }
+        String joinedInitials = String.join(", ", initials);
 
-            current.setText("<html><center>" + roomName + "<br>(" + joinedInitials + ")</center></html>");
+        if ("Hallway".equals(current.getToolTipText())) {
+            // Inline initials for hallway
+            current.setText(initials.isEmpty() ? "" : " (" + joinedInitials + ")");
+        } else {
+            // Show initials below the room name using HTML
+            String roomName = current.getToolTipText();
+            current.setText(initials.isEmpty() ? roomName
+                    : "<html><center>" + roomName + "<br>(" + joinedInitials + ")</center></html>");
         }
     }
 
@@ -1471,9 +1558,23 @@ public class Client extends JFrame {
                 JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Greys out the move buttons the server says can't be used. Must run on the event dispatch thread.
+     * @param moves - LEGAL_MOVES mask, bit 1 << direction for each open direction and 1 << PASSAGE for the passage
+     */
+    private void showLegalMoves(int moves) {
+        for (int direction = 0; direction < moveButtons.length; direction++) {
+            moveButtons[direction].setEnabled(Protocol.allows(moves, direction));
+        }
+        secretPassageButton.setEnabled(Protocol.allows(moves, Protocol.PASSAGE));
+    }
+
     private void disableGameActions() {
         makeSuggestionButton.setEnabled(false);
         makeAccusationButton.setEnabled(false);
+        for (JButton moveButton : moveButtons) {
+            moveButton.setEnabled(false);
+        }
 
         if (secretPassageButton != null) {
             secretPassageButton.setEnabled(false);
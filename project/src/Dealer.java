@@ -0,0 +1,65 @@
+import java.util.random.RandomGenerator;
+import util.Cards;
+
+/**
+ * The Dealer class picks the hidden solution and deals the rest of the cards.
+ *
+ * It works on util.Cards masks and takes the random number generator to use, so the server and the
+ * simulator deal exactly the same way and a simulation can be repeated from a seed.
+ */
+public final class Dealer {
+
+    private Dealer() {
+    }
+
+    /**
+     * Picks one random suspect, weapon and room.
+     *
+     * @param random where the randomness comes from
+     * @return the solution as a util.Cards mask of three cards
+     */
+    public static int pickSolution(RandomGenerator random) {
+        return Cards.bit(pickOne(Cards.SUSPECTS, random))
+                | Cards.bit(pickOne(Cards.WEAPONS, random))
+                | Cards.bit(pickOne(Cards.ROOMS, random));
+    }
+
+    /**
+     * Shuffles every card but the solution and deals them round-robin, starting with the first player.
+     *
+     * @param solution util.Cards mask of the solution cards, which aren't dealt
+     * @param players how many players to deal to
+     * @param random where the randomness comes from
+     * @return each player's hand as a util.Cards mask, in seat order
+     */
+    public static int[] deal(int solution, int players, RandomGenerator random) {
+        int[] deck = Cards.ids(Cards.ALL & ~solution);
+
+        // Fisher-Yates shuffle
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int card = deck[i];
+            deck[i] = deck[j];
+            deck[j] = card;
+        }
+
+        int[] hands = new int[players];
+        for (int i = 0; i < deck.length; i++) {
+            hands[i % players] |= Cards.bit(deck[i]);
+        }
+        return hands;
+    }
+
+    /**
+     * @param cards a util.Cards mask to choose from
+     * @param random where the randomness comes from
+     * @return the id of one of the cards, each equally likely
+     */
+    public static int pickOne(int cards, RandomGenerator random) {
+        int skip = random.nextInt(Integer.bitCount(cards));
+        for (int i = 0; i < skip; i++) {
+            cards &= cards - 1; // drop the lowest card
+        }
+        return Integer.numberOfTrailingZeros(cards);
+    }
+}
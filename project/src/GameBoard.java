@@ -1,5 +1,11 @@
 import java.util.*;
 import java.awt.Point;
+import java.util.random.RandomGenerator;
+import net.Frame;
+import net.Message;
+import net.Opcode;
+import net.Protocol;
+import util.Cards;
 
 /**
  * The GameBoard class models the game environment for the Clue-Less game.
@@ -8,6 +14,14 @@ import java.awt.Point;
  *
  * It also randomly selects a hidden solution (character, weapon, and room) at game initialization.
  *
+ * Every change to a player's position bumps the board's version. The ALL_POSITIONS frame is encoded at most once
+ * per version and the same bytes are handed out until the next change. Moves also record a POSITION_DELTA frame
+ * stamped with the new version, so clients that already have the board only need to hear about the one player
+ * that moved.
+ *
+ * Where pieces stand and which moves are legal is kept in a BitBoard, so checking a move is a couple of mask
+ * operations. The Room objects are still there for names and for the debug view.
+ *
  *  * Authors:
  *  *  - Albert Rojas
  */
@@ -18,34 +32,44 @@ public class GameBoard {
 
 
     private final Room[][] rooms;
-    private final Set<Hallway> hallways;
+    private final BitBoard bits = new BitBoard(); // piece positions and hallway occupancy
     private final Map<String, PlayerState> playerPositions; // key = player name/ID
     private final String solutionCharacter;
     private final String solutionWeapon;
     private final String solutionRoom;
+    private volatile int version = 0; // bumped on every position change
+    private volatile PositionsSnapshot positions = null; // last encoded ALL_POSITIONS frame
+    private volatile Frame lastDelta = null; // POSITION_DELTA for the latest move
+
+    /**
+     * An encoded ALL_POSITIONS frame and the board version it was made from
+     */
+    private record PositionsSnapshot(int version, Frame frame) {
+    }
 
     /**
      * Constructs a GameBoard, initializes rooms, hallways, and picks a random solution.
      */
     public GameBoard() {
+        this(new Random());
+    }
+
+    /**
+     * Constructs a GameBoard whose solution is picked with the given random number generator, so a game can be
+     * repeated from a seed.
+     *
+     * @param random where the randomness comes from
+     */
+    public GameBoard(RandomGenerator random) {
         this.rooms = new Room[SIZE][SIZE];
-        this.hallways = new HashSet<>();
         this.playerPositions = new HashMap<>();
         initializeRooms();
-        initializeHallways();
 
         // Generate random hidden solution
-        this.solutionCharacter = pickRandom(new String[]{
-                "MissScarlet", "ColonelMustard", "MrsWhite",
-                "MrGreen", "MrsPeacock", "ProfessorPlum"
-        });
-        this.solutionWeapon = pickRandom(new String[]{
-                "Candlestick", "Knife", "LeadPipe", "Revolver", "Rope", "Wrench"
-        });
-        this.solutionRoom = pickRandom(new String[]{
-                "Study", "Hall", "Lounge", "Library", "Billiard Room", "Dining Room",
-                "Conservatory", "Ballroom", "Kitchen"
-        });
+        int solution = Dealer.pickSolution(random);
+        this.solutionCharacter = Cards.name(Integer.numberOfTrailingZeros(solution & Cards.SUSPECTS));
+        this.solutionWeapon = Cards.name(Integer.numberOfTrailingZeros(solution & Cards.WEAPONS));
+        this.solutionRoom = Cards.name(Integer.numberOfTrailingZeros(solution & Cards.ROOMS));
     }
 
 
@@ -75,28 +99,6 @@ public class GameBoard {
         }
     }
 
-    /**
-     * Initializes the set of valid hallway connections between rooms.
-     */
-    private void initializeHallways() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (rooms[row][col] == null) continue;
-
-                // Try to connect to all 4 cardinal neighbors (up, down, left, right)
-                int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
-                for (int[] dir : directions) {
-                    int nRow = row + dir[0];
-                    int nCol = col + dir[1];
-
-                    if (nRow >= 0 && nRow < SIZE && nCol >= 0 && nCol < SIZE && rooms[nRow][nCol] != null) {
-                        hallways.add(new Hallway(row, col, nRow, nCol));
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Adds a player to the game board at a specified starting location.
      *
@@ -108,10 +110,11 @@ public class GameBoard {
      */
     public boolean addPlayer(String playerId, String characterName, int row, int col) {
         Room room = getRoom(row, col);
-        if (room == null) return false;
+        int piece = pieceOf(characterName);
+        if (room == null || piece < 0) return false;
 
         // Restrict hallways to one player
-        if (room.getName().equals("Hallway") && room.isOccupied()) {
+        if (bits.isBlocked(BitBoard.cell(row, col))) {
             System.out.println("Hallway at (" + row + "," + col + ") is already occupied.");
             return false;
         }
@@ -119,6 +122,8 @@ public class GameBoard {
         PlayerState player = new PlayerState(playerId, characterName, row, col);
         playerPositions.put(playerId, player);
         room.addOccupant(playerId);
+        bits.place(piece, BitBoard.cell(row, col));
+        version++;
 
         return true;
     }
@@ -143,37 +148,111 @@ public class GameBoard {
         int currentCol = player.getCol();
         System.out.printf("Player at (%d,%d), attempting to move to (%d,%d)\n", currentRow, currentCol, targetRow, targetCol);
 
-        Hallway attemptedPath = new Hallway(currentRow, currentCol, targetRow, targetCol);
-        if (!hallways.contains(attemptedPath)) {
-            System.out.println("Invalid hallway: " + attemptedPath);
+        // checks the cells are connected and a target hallway is empty
+        if (!BitBoard.exists(targetRow, targetCol)
+                || !bits.move(pieceOf(player.getCharacterName()), BitBoard.cell(targetRow, targetCol))) {
+            System.out.println("Invalid move to: (" + targetRow + "," + targetCol + ")");
             return false;
         }
 
         Room currentRoom = getRoom(currentRow, currentCol);
         Room targetRoom = getRoom(targetRow, targetCol);
 
-        if (targetRoom == null) {
-            System.out.println("Target room is null at: (" + targetRow + "," + targetCol + ")");
-            return false;
+        // Move player
+        if (currentRoom != null) {
+            currentRoom.removeOccupant(playerId);
         }
+        targetRoom.addOccupant(playerId);
+        player.setPosition(targetRow, targetCol);
+        recordDelta(player, currentRow, currentCol);
+
+        System.out.println("Player moved successfully to: (" + targetRow + "," + targetCol + ")");
+        return true;
+    }
 
-        // Restrict hallways to 1 occupant
-        if (targetRoom.getName().equals("Hallway") && targetRoom.isOccupied()) {
-            System.out.println("Target hallway is already occupied.");
+    /**
+     * Puts a player straight into a room without checking hallways, for suggestions and secret passages.
+     *
+     * @param playerId the player's ID
+     * @param targetRow the row to move to
+     * @param targetCol the column to move to
+     * @return true if the player was moved, false if there is no such player or room
+     */
+    public boolean relocatePlayer(String playerId, int targetRow, int targetCol) {
+        PlayerState player = playerPositions.get(playerId);
+        Room targetRoom = getRoom(targetRow, targetCol);
+        if (player == null || targetRoom == null) {
             return false;
         }
 
-        // Move player
+        int currentRow = player.getRow();
+        int currentCol = player.getCol();
+        Room currentRoom = getRoom(currentRow, currentCol);
         if (currentRoom != null) {
             currentRoom.removeOccupant(playerId);
         }
         targetRoom.addOccupant(playerId);
+        bits.place(pieceOf(player.getCharacterName()), BitBoard.cell(targetRow, targetCol));
         player.setPosition(targetRow, targetCol);
-
-        System.out.println("Player moved successfully to: (" + targetRow + "," + targetCol + ")");
+        recordDelta(player, currentRow, currentCol);
         return true;
     }
 
+    /**
+     * Returns the POSITION_DELTA for the most recent move, stamped with the version the move produced.
+     *
+     * @return the encoded delta, or null if nobody has moved yet
+     */
+    public Frame getLastPositionDelta() {
+        return lastDelta;
+    }
+
+    /**
+     * bumps the version and encodes the move that caused it
+     */
+    private void recordDelta(PlayerState player, int fromRow, int fromCol) {
+        int next = version + 1;
+        lastDelta = Frame.of(Message.of(Opcode.POSITION_DELTA, next, Protocol.cardId(player.getCharacterName()),
+                fromRow, fromCol, player.getRow(), player.getCol()));
+        version = next;
+    }
+
+    /**
+     * Returns how many times player positions have changed. Two calls that return the same number saw the
+     * same positions.
+     *
+     * @return the board's version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the ALL_POSITIONS frame for the current positions. It is only encoded again after a player moves,
+     * so every recipient and every repeated request shares the same bytes.
+     *
+     * @return the encoded positions of every player
+     */
+    public Frame getPositionsFrame() {
+        PositionsSnapshot cached = positions;
+        int current = version;
+        if (cached != null && cached.version() == current) {
+            return cached.frame();
+        }
+
+        int[] fields = new int[playerPositions.size() * 3];
+        int i = 0;
+        for (PlayerState ps : playerPositions.values()) {
+            fields[i++] = Protocol.cardId(ps.getCharacterName());
+            fields[i++] = ps.getRow();
+            fields[i++] = ps.getCol();
+        }
+
+        Frame frame = Frame.of(Message.of(Opcode.ALL_POSITIONS, current, fields));
+        positions = new PositionsSnapshot(current, frame);
+        return frame;
+    }
+
     /**
      * Returns the Room object where the specified player currently is.
      *
@@ -252,60 +331,58 @@ public class GameBoard {
         PlayerState player = playerPositions.get(playerId);
         if (player == null) return false;
 
-        int row = player.getRow();
-        int col = player.getCol();
-        int newRow = row, newCol = col;
-
-        switch (direction) {
-            case "UP" -> newRow--;
-            case "DOWN" -> newRow++;
-            case "LEFT" -> newCol--;
-            case "RIGHT" -> newCol++;
-            default -> {
-                System.out.println("Invalid direction: " + direction);
-                return false;
-            }
-        }
-
-        // Check bounds
-        if (newRow < 0 || newRow >= SIZE || newCol < 0 || newCol >= SIZE) {
-            System.out.printf("Move out of bounds: (%d,%d)%n", newRow, newCol);
-            return false;
-        }
-
-        // Check if there's a room or hallway
-        if (getRoom(newRow, newCol) == null) {
-            System.out.printf("No room at (%d,%d)%n", newRow, newCol);
-            return false;
-        }
-
-        // Check hallway connection
-        Hallway attemptedPath = new Hallway(row, col, newRow, newCol);
-        if (!hallways.contains(attemptedPath)) {
-            System.out.printf("No valid hallway between (%d,%d) and (%d,%d)%n", row, col, newRow, newCol);
-            return false;
-        }
-
-        Room targetRoom = getRoom(newRow, newCol);
-        if (targetRoom.getName().equals("Hallway") && targetRoom.isOccupied()) {
-            System.out.printf("Target hallway (%d,%d) is occupied%n", newRow, newCol);
+        int step = switch (direction) {
+            case "UP" -> BitBoard.UP;
+            case "DOWN" -> BitBoard.DOWN;
+            case "LEFT" -> BitBoard.LEFT;
+            case "RIGHT" -> BitBoard.RIGHT;
+            default -> -1;
+        };
+        if (step < 0) {
+            System.out.println("Invalid direction: " + direction);
             return false;
         }
 
+        return bits.canMove(pieceOf(player.getCharacterName()), step);
+    }
 
-        return true;
+    /**
+     * Lists every cell a player could end up on with one step or a secret passage.
+     *
+     * @param playerId the player's ID
+     * @return a mask with bit row * 5 + col set for each reachable cell, 0 if the player isn't on the board
+     */
+    public int getLegalMoves(String playerId) {
+        PlayerState player = playerPositions.get(playerId);
+        if (player == null) return 0;
+        return bits.legalMoves(pieceOf(player.getCharacterName()));
     }
 
     /**
-     * Randomly selects an item from an array.
+     * Lists every move a player can make right now, so a client can offer only those.
      *
-     * @param array an array of strings to choose from
-     * @return a randomly selected string
+     * @param playerId the player's ID
+     * @return bit 1 << direction for each of UP, DOWN, LEFT and RIGHT that is open, plus bit 1 << PASSAGE if the
+     * player is in a room with a secret passage. 0 if the player isn't on the board
      */
-    private String pickRandom(String[] array) {
-        return array[new Random().nextInt(array.length)];
+    public int legalMoves(String playerId) {
+        PlayerState player = playerPositions.get(playerId);
+        if (player == null) return 0;
+        return bits.legalDirections(pieceOf(player.getCharacterName()));
     }
 
+    /**
+     * @param characterName a suspect's name
+     * @return the suspect's piece number on the BitBoard, or -1 if it isn't a suspect
+     */
+    private static int pieceOf(String characterName) {
+        for (int piece = 0; piece < BitBoard.PIECES; piece++) {
+            if (Protocol.cardName(piece).equals(characterName)) {
+                return piece;
+            }
+        }
+        return -1;
+    }
 
     /**
      * Verifies whether an accusation matches the game's hidden solution.
@@ -330,16 +407,9 @@ public class GameBoard {
      * @return a Point indicating the destination row and column, or null if no passage
      */
     public Point getSecretPassageDestination(int row, int col) {
-        if (rooms[row][col] == null) return null;
-        String roomName = rooms[row][col].getName();
-
-        return switch (roomName) {
-            case "Study" -> new Point(4, 4); // Kitchen
-            case "Kitchen" -> new Point(0, 0); // Study
-            case "Conservatory" -> new Point(0, 4); // Lounge
-            case "Lounge" -> new Point(4, 0); // Conservatory
-            default -> null;
-        };
+        if (!BitBoard.exists(row, col)) return null;
+        int destination = BitBoard.passage(BitBoard.cell(row, col));
+        return destination == BitBoard.OFF_BOARD ? null : new Point(BitBoard.row(destination), BitBoard.col(destination));
     }
 
     /**
@@ -377,6 +447,16 @@ public class GameBoard {
      */
     public String getSolutionRoom() { return solutionRoom; }
 
+    /**
+     * Returns the three solution cards as a util.Cards mask.
+     *
+     * @return bit 1 << id for the solution character, weapon and room
+     */
+    public int getSolutionCards() {
+        return Cards.bit(Cards.id(solutionCharacter)) | Cards.bit(Cards.id(solutionWeapon))
+                | Cards.bit(Cards.id(solutionRoom));
+    }
+
 
 }
 
@@ -0,0 +1,779 @@
+import java.awt.Point;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import net.Frame;
+import net.Message;
+import net.Opcode;
+import net.Protocol;
+import util.Cards;
+import util.SerialExecutor;
+
+/**
+ * The GameSession class runs one game of Clue-Less.
+ *
+ * Each session has its own game board, its own seated players in turn order, and its own disprove state,
+ * so a server can run as many games side by side as it has players for. The Lobby decides which session a
+ * player sits down at, and the server hands every game command from that player to the session.
+ *
+ * A session is an actor. join, handle and leave only queue the work and return straight away; the queued
+ * commands then run one at a time on a shared pool. Only those commands ever touch the board, the players
+ * or the disprove state, so none of it needs a lock, and different games run on different cores.
+ *
+ * A BotPlayer can take an empty seat before the cards are dealt, and takes over the seat of anyone who leaves
+ * once they are, so a game doesn't stall on a player who has gone. A game closes when its last person leaves.
+ */
+public class GameSession {
+
+    /**
+     * players needed before the cards are dealt. A table locks as soon as the second one joins, so a game is
+     * always two players, bots included, even though the board has seats for MAX_PLAYERS
+     */
+    public static final int PLAYERS_TO_START = 2;
+    public static final int MAX_PLAYERS = 6;
+
+    private static final Map<String, int[]> startingPositions = Map.of(
+            "MissScarlet", new int[]{4, 0},
+            "ColonelMustard", new int[]{0, 2},
+            "MrsWhite", new int[]{0, 4},
+            "MrGreen", new int[]{4, 4},
+            "MrsPeacock", new int[]{4, 2},
+            "ProfessorPlum", new int[]{0, 0}
+    );
+
+    private final int id;
+    private final SerialExecutor actor; // runs every command for this game, one at a time
+
+    // seats handed out by the Lobby, only used while holding the Lobby's lock
+    private final Set<String> seats = new HashSet<>();
+    private int people = 0; // seats held by someone connected rather than a bot
+    private boolean full = false;
+
+    // game state, only used by commands running on the actor
+    private final List<Participant> players = new ArrayList<>(); // in turn order
+    private GameBoard gameBoard = new GameBoard();
+    private boolean cardsDealt = false;
+    private int currentTurnIndex = 0; // index into players list
+    private boolean gameStarted = false;
+    private String lastSuggester = null;
+    private Iterator<Participant> disproveIterator;
+    private Participant suggestingPlayer;
+    private Participant disprover; // the player asked to show a card, while waitingForDisprove
+    private int disproveMatches; // util.Cards mask of the cards they were offered
+    private int currentSuggestionCards; // util.Cards mask of the suspect, weapon and room
+    private boolean waitingForDisprove = false;
+
+    /**
+     * Creates an empty game with a fresh board.
+     *
+     * @param id number used to tell this game apart in the server log
+     * @param pool threads shared by every game to run their commands on
+     */
+    public GameSession(int id, Executor pool) {
+        this.id = id;
+        this.actor = new SerialExecutor(pool);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param name a card name
+     * @return true if the name is a character that can be played
+     */
+    public static boolean isCharacter(String name) {
+        return startingPositions.containsKey(name);
+    }
+
+    /**
+     * Holds a seat for a character. Called by the Lobby before it sends the player to join.
+     *
+     * @param characterName the character a player wants to play
+     * @return true if the game hasn't filled up and nobody else has that character
+     */
+    boolean reserve(String characterName) {
+        if (!take(characterName)) {
+            return false;
+        }
+        people++;
+        return true;
+    }
+
+    /**
+     * Holds a seat for a bot. Called by the Lobby before it sends the bot to join.
+     *
+     * @return the first character nobody has taken, or null if the game has filled up
+     */
+    String reserveBot() {
+        for (int suspect = 0; suspect < MAX_PLAYERS; suspect++) {
+            String characterName = Cards.name(suspect);
+            if (take(characterName)) {
+                return characterName;
+            }
+        }
+        return null;
+    }
+
+    private boolean take(String characterName) {
+        if (full || seats.size() >= MAX_PLAYERS || !seats.add(characterName)) {
+            return false;
+        }
+        full = seats.size() >= PLAYERS_TO_START; // the cards get dealt once this many have joined
+        return true;
+    }
+
+    /**
+     * Gives back a person's seat. A game that has filled up doesn't open again, and keeps the seat for the bot
+     * that takes over.
+     *
+     * @param characterName the character that left
+     * @return true if no people are left in the game, only bots
+     */
+    boolean release(String characterName) {
+        if (!full) {
+            seats.remove(characterName);
+        }
+        people--;
+        return people == 0;
+    }
+
+    /**
+     * Seats a player at their character's starting position and tells everyone at the table. Once enough
+     * players have joined the cards are dealt and the first turn starts.
+     *
+     * @param player the player joining, whose character the Lobby has reserved
+     */
+    public void join(Participant player) {
+        actor.execute(() -> run(player, () -> seat(player)));
+    }
+
+    /**
+     * Queues one game command from a player seated at this table.
+     *
+     * @param player the player who sent it
+     * @param clientCommand the command
+     */
+    public void handle(Participant player, Message clientCommand) {
+        actor.execute(() -> run(player, () -> {
+            if (!players.contains(player)) {
+                return; // sent before they left, and a bot may have their character now
+            }
+            if (!handleCommand(player, clientCommand)) {
+                player.disconnect();
+            }
+        }));
+    }
+
+    /**
+     * Takes a player away from the table once everything they sent before leaving has run. If the cards have
+     * been dealt a bot takes their seat, their cards and their turn instead.
+     *
+     * @param player the player leaving
+     * @param last true if they were the last person in the game, which closes it and sends the bots away too
+     */
+    public void leave(Participant player, boolean last) {
+        actor.execute(() -> run(player, () -> {
+            int index = players.indexOf(player);
+            if (last) {
+                players.clear();
+                waitingForDisprove = false;
+            } else if (index >= 0 && cardsDealt) {
+                replaceWithBot(index, player);
+            } else if (index >= 0) {
+                players.remove(index);
+                if (index < currentTurnIndex) {
+                    currentTurnIndex--;
+                }
+                if (currentTurnIndex >= players.size()) {
+                    currentTurnIndex = 0;
+                }
+            }
+        }));
+    }
+
+    /**
+     * A command for the actor to run that may fail sending to a player
+     */
+    private interface Command {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs a command on the actor, telling the player about anything that goes wrong.
+     *
+     * @param player the player the command came from
+     * @param command the command
+     */
+    private void run(Participant player, Command command) {
+        try {
+            command.run();
+        } catch (Exception e) {
+            System.err.println("Error while processing client command:");
+            e.printStackTrace();
+            try {
+                player.send(error(String.valueOf(e.getMessage())));
+            } catch (IOException io) {
+                io.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Hands a player's seat to a bot and tells the bot everything a client would have heard: the board, its
+     * cards, and whatever the player was last asked to do.
+     *
+     * @param index the player's place in the turn order
+     * @param player the player leaving
+     */
+    private void replaceWithBot(int index, Participant player) throws IOException {
+        String characterName = player.getCharacterName();
+        BotPlayer bot = new BotPlayer(characterName, this);
+        bot.setEliminated(player.isEliminated());
+        players.set(index, bot);
+        System.out.println("A bot took over " + characterName + " in game " + id);
+
+        bot.send(gameBoard.getPositionsFrame());
+        PlayerState state = gameBoard.getPlayerState(characterName);
+        if (state != null) {
+            bot.send(Message.of(Opcode.YOUR_CARDS, Cards.ids(state.getHand())));
+        }
+
+        if (suggestingPlayer == player) {
+            suggestingPlayer = bot;
+        }
+        if (waitingForDisprove && disprover == player) {
+            disprover = bot;
+            bot.send(Message.of(Opcode.DISPROVE_OPTIONS, Cards.ids(disproveMatches)));
+        } else if (index == currentTurnIndex && !waitingForDisprove && !bot.isEliminated()) {
+            notifyCurrentTurnPlayer(); // start their turn over, the bot doesn't know how far they got
+        }
+    }
+
+    private void seat(Participant player) throws IOException {
+        String characterName = player.getCharacterName();
+        int[] start = startingPositions.get(characterName);
+        boolean added = gameBoard.addPlayer(characterName, characterName, start[0], start[1]);
+
+        if (added) {
+            players.add(player);
+            player.send(Message.of(Opcode.JOINED, Protocol.cardId(characterName)));
+        } else {
+            System.out.println("JOIN failed: position occupied or name taken");
+            player.send(Message.of(Opcode.JOIN_FAILED, "Position occupied or name taken"));
+        }
+        broadcastPlayerPositions();  // full snapshot on join, everything after that is a delta
+        if (!cardsDealt && players.size() >= PLAYERS_TO_START) {
+            dealCardsToPlayers();
+            cardsDealt = true;
+        }
+    }
+
+    private boolean handleCommand(Participant participant, Message clientCommand) throws IOException {
+        Opcode opcode = clientCommand.getOpcode();
+        String characterName = participant.getCharacterName();
+
+        // MOVE_DIRECTION command (up, down, left, right)
+        if (opcode == Opcode.MOVE_DIRECTION) {
+            if (participant.isEliminated()) {
+                participant.send(error("You are eliminated and cannot move."));
+                return true;
+            }
+
+            if (!isTurnOf(characterName)) {
+                participant.send(error("Not your turn."));
+                return true;
+            }
+
+
+            try {
+                String direction = Protocol.directionName(clientCommand.getInt(0));
+
+                System.out.println("Player ID: " + characterName);
+                PlayerState player = gameBoard.getPlayerState(characterName);
+                if (player == null) {
+                    System.out.println("Player not found!");
+                    participant.send(Message.of(Opcode.MOVE_FAILED, "player not found"));
+                    return true;
+                }
+
+                int row = player.getRow();
+                int col = player.getCol();
+                int newRow = row, newCol = col;
+                System.out.printf("Current position: (%d,%d)%n", row, col);
+
+                switch (direction) {
+                    case "UP" -> newRow--;
+                    case "DOWN" -> newRow++;
+                    case "LEFT" -> newCol--;
+                    case "RIGHT" -> newCol++;
+                }
+
+                System.out.printf("Attempting to move %s to (%d,%d)%n", direction, newRow, newCol);
+
+                boolean canMove = gameBoard.canMove(characterName, direction);
+                if (canMove) {
+                    boolean moved = gameBoard.movePlayer(characterName, newRow, newCol);
+                    if (moved) {
+                        participant.send(Message.of(Opcode.MOVED, newRow, newCol, 0));
+                        broadcastPositionDelta();
+
+                        // NEW: Check if the player moved into a room
+                        Room newRoom = gameBoard.getRoom(newRow, newCol);
+                        if (newRoom != null && !newRoom.getName().equals("Hallway")) {
+                            participant.send(Message.of(Opcode.PROMPT_SUGGESTION));
+                        }else {
+                            nextTurn();
+                        }
+                    } else {
+                        participant.send(Message.of(Opcode.MOVE_FAILED, "could not move to (" + newRow + "," + newCol + ")"));
+                    }
+
+                } else {
+                    participant.send(Message.of(Opcode.MOVE_FAILED, "Illegal move in direction: " + direction));
+                }
+            } catch (Exception ex) {
+                System.err.println("Error in MOVE_DIRECTION block:");
+                ex.printStackTrace();
+                participant.send(Message.of(Opcode.MOVE_FAILED, "Server error: " + ex.getMessage()));
+            }
+        }
+
+        if (opcode == Opcode.SUGGEST) {
+            if (participant.isEliminated()) {
+                participant.send(error("You are eliminated and cannot make suggestions."));
+                return true;
+            }
+
+            if (!isTurnOf(characterName)) {
+                participant.send(error("Not your turn."));
+                return true;
+            }
+
+
+            try {
+                String suspect = Protocol.cardName(clientCommand.getInt(0));
+                String weapon = Protocol.cardName(clientCommand.getInt(1));
+                System.out.println(characterName + " made a suggestion: " + suspect + " with the " + weapon);
+
+                Room currentRoom = gameBoard.getRoom(characterName);
+                if (currentRoom == null) {
+                    participant.send(error("Cannot suggest, room not found."));
+                    return false;
+                }
+
+                if (currentRoom.getName().equals("Hallway")) {
+                    System.out.print(currentRoom.getName());
+                    participant.send(error("Cannot make a suggestion from a hallway."));
+                    return true; // <--- this keeps the socket open and loops to next command;
+                }
+
+
+                String roomName = currentRoom.getName();
+
+                System.out.println(characterName + " made a suggestion: " +
+                        suspect + " with the " + weapon + " in the " + currentRoom.getName());
+
+                lastSuggester = characterName;
+
+                // Move suspect (character) to current room
+                if (gameBoard.relocatePlayer(suspect, currentRoom.getRow(), currentRoom.getCol())) {
+                    broadcastPositionDelta();
+                }
+
+                broadcast(Message.of(Opcode.SUGGESTION, Protocol.cardId(characterName),
+                        clientCommand.getInt(0), clientCommand.getInt(1), Protocol.cardId(roomName)));
+
+                int suggestionCards = Cards.bit(clientCommand.getInt(0)) | Cards.bit(clientCommand.getInt(1))
+                        | Cards.bit(Cards.id(roomName));
+
+                // Set this game's disprove state
+                suggestingPlayer = players.get(currentTurnIndex);
+                currentSuggestionCards = suggestionCards;
+                waitingForDisprove = true;
+
+                List<Participant> disproveOrder = new ArrayList<>();
+                int playerCount = players.size();
+                int i = (currentTurnIndex + 1) % playerCount;
+                while (i != currentTurnIndex) {
+                    disproveOrder.add(players.get(i));
+                    i = (i + 1) % playerCount;
+                }
+                disproveIterator = disproveOrder.iterator();
+
+                proceedToNextDisprover();
+
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                participant.send(error("Could not process suggestion."));
+            }
+        }
+
+
+
+        if (opcode == Opcode.SECRET_PASSAGE) {
+            PlayerState player = gameBoard.getPlayerState(characterName);
+            if (player == null) {
+                participant.send(error("Player not found."));
+                return true;
+            }
+
+            int currentRow = player.getRow();
+            int currentCol = player.getCol();
+            Room currentRoom = gameBoard.getRoom(characterName);
+
+            if (currentRoom == null || currentRoom.getName().equals("Hallway")) {
+                participant.send(error("Not in a room with a secret passage."));
+                return true;
+            }
+
+            Point destination = gameBoard.getSecretPassageDestination(currentRow, currentCol);
+            if (destination == null) {
+                participant.send(error("No secret passage from this room."));
+                return true;
+            }
+
+            Room targetRoom = gameBoard.getRoom(destination.x, destination.y);
+            if (targetRoom == null) {
+                participant.send(error("Destination room is invalid."));
+                return true;
+            }
+
+            gameBoard.relocatePlayer(characterName, destination.x, destination.y);
+
+            participant.send(Message.of(Opcode.MOVED, destination.x, destination.y, 1));
+            broadcastPositionDelta();
+        }
+
+        if (opcode == Opcode.END_TURN) {
+            if (!isTurnOf(characterName)) {
+                participant.send(error("Not your turn."));
+                return true;
+            }
+            nextTurn();
+        }
+
+        if (opcode == Opcode.DISPROVE_SELECTED) {
+            int cardShown = clientCommand.getInt(0);
+            if (!waitingForDisprove || participant != disprover) {
+                participant.send(error("You weren't asked to show a card."));
+            } else if (cardShown < 0 || cardShown >= Cards.COUNT || (disproveMatches & Cards.bit(cardShown)) == 0) {
+                // everyone, bots included, deduces from the card shown, so it has to be one that was offered
+                participant.send(error("Show one of the cards you were offered."));
+            } else {
+                broadcast(Message.of(Opcode.DISPROVE_RESULT, Protocol.cardId(characterName), 1));
+
+                Participant suggester = suggestingPlayer;
+                if (suggester != null) {
+                    suggester.send(Message.of(Opcode.CARD_SHOWN, Protocol.cardId(characterName), cardShown));
+                    suggester.send(Message.of(Opcode.PROMPT_ACCUSATION_OR_END));
+                }
+
+                waitingForDisprove = false;
+                disprover = null;
+            }
+        }
+
+
+        if (opcode == Opcode.ACCUSE) {
+            // Check if the player is already eliminated
+            if (participant.isEliminated()) {
+                participant.send(error("You are eliminated and cannot make accusations."));
+                return true;
+            }
+
+            // Check if it is the player's turn
+            if (!isTurnOf(characterName)) {
+                participant.send(error("It is not your turn."));
+                return true;
+            }
+
+            // Extract accused character, weapon, and room from the command
+            String accusedCharacter = Protocol.cardName(clientCommand.getInt(0));
+            String accusedWeapon = Protocol.cardName(clientCommand.getInt(1));
+            String accusedRoom = Protocol.cardName(clientCommand.getInt(2));
+
+            // Check if the accusation is correct
+            boolean correct = gameBoard.isCorrectAccusation(accusedCharacter, accusedWeapon, accusedRoom);
+
+            if (correct) {
+                // If the accusation is correct, declare the player the winner
+                participant.send(Message.of(Opcode.ACCUSATION_RESULT, 1,
+                        clientCommand.getInt(0), clientCommand.getInt(1), clientCommand.getInt(2)));
+
+                // Broadcast the winner to all players
+
+                broadcast(characterName + " has made a CORRECT accusation and won the game!");
+                broadcast(Message.of(Opcode.GAME_OVER, characterName));
+                System.out.println(characterName + " WON game " + id + "!");
+                resetGame();
+
+                // End the game logic here, if necessary (e.g., shutting down the server or waiting for a replay)
+            } else {
+                // Incorrect accusation, eliminate the player
+                participant.setEliminated(true);
+
+                // Notify the player of their elimination
+                participant.send(Message.of(Opcode.ACCUSATION_RESULT, 0,
+                        clientCommand.getInt(0), clientCommand.getInt(1), clientCommand.getInt(2)));
+
+                // Broadcast to all players that this player has been removed
+                broadcast(characterName + " made an incorrect accusation and is eliminated from the game.");
+                System.out.println(characterName + " has been eliminated.");
+
+                checkForVictory(); // Check if only one player remains (optional)
+
+                // Proceed to the next turn
+                nextTurn();
+            }
+
+            return true; // skip to next command
+        }
+
+
+
+        // WHERE command
+        if (opcode == Opcode.WHERE) {
+            if (participant.isEliminated()) {
+                participant.send(error("You are eliminated and cannot check location."));
+                return true;
+            }
+
+            participant.send(gameBoard.getPositionsFrame());  // Re-send everyone’s positions, cached until someone moves
+            PlayerState me = gameBoard.getPlayerState(characterName);
+            if (me != null) {
+                participant.send(Message.of(Opcode.LOCATION, me.getRow(), me.getCol()));
+            }
+        }
+
+
+        // a client missed a POSITION_DELTA and wants the whole board again
+        if (opcode == Opcode.RESYNC) {
+            participant.send(gameBoard.getPositionsFrame());
+        }
+
+        // Optional: debug board after every move
+        gameBoard.printBoardDebug();
+        return true;
+    }
+
+    /**
+     * @param characterName the character to check
+     * @return true if it is that character's turn
+     */
+    private boolean isTurnOf(String characterName) {
+        return !players.isEmpty() && characterName.equals(players.get(currentTurnIndex).getCharacterName());
+    }
+
+    /**
+     * Sequentially prompts each player in clockwise order to disprove the current suggestion.
+     * This method uses disproveIterator, which contains the ordered list of players starting from
+     * the player immediately after the suggester. It checks each player's hand to see if they have any of
+     * the cards in currentSuggestionCards, which is one AND of the two card masks. The first player who has one or more matching cards is
+     * sent a DISPROVE_OPTIONS message and is expected to respond before the process continues.
+
+     * If a player cannot disprove, a DISPROVE_RESULT is broadcast, and the method recurses to check the next player.
+     * If no players can disprove (the iterator is exhausted), a message is sent to the suggester and they are
+     * prompted to make an accusation or end their turn.
+     */
+    private void proceedToNextDisprover() {
+        if (!disproveIterator.hasNext()) {
+            try {
+                broadcast("No one could disprove the suggestion.");
+                suggestingPlayer.send(Message.of(Opcode.PROMPT_ACCUSATION_OR_END));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            waitingForDisprove = false;
+            return;
+        }
+
+        Participant nextPlayer = disproveIterator.next();
+        PlayerState nextState = gameBoard.getPlayerState(nextPlayer.getCharacterName());
+
+        if (nextState != null) {
+            int matches = nextState.getHand() & currentSuggestionCards;
+
+            if (matches != 0) {
+                try {
+                    disprover = nextPlayer;
+                    disproveMatches = matches;
+                    nextPlayer.send(Message.of(Opcode.DISPROVE_OPTIONS, Cards.ids(matches)));
+                    // Wait for their reply before continuing
+                    return;
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            } else {
+                broadcast(Message.of(Opcode.DISPROVE_RESULT, Protocol.cardId(nextPlayer.getCharacterName()), 0));
+            }
+        }
+
+        // Continue to the next player
+        proceedToNextDisprover();
+    }
+
+    /**
+     * Broadcasts a text notice to every player in this game.
+     *
+     * @param message the text to send to every client
+     */
+    private void broadcast(String message) {
+        broadcast(Message.of(Opcode.NOTICE, message));
+    }
+
+    /**
+     * Broadcasts a message to every player in this game.
+     *
+     * @param message the message to send to every client
+     */
+    private void broadcast(Message message) {
+        broadcast(Frame.of(message)); // encoded once, every player's queue shares the same bytes
+    }
+
+    /**
+     * Broadcasts an already encoded message to every player in this game.
+     *
+     * @param frame the frame to send to every client
+     */
+    private void broadcast(Frame frame) {
+        for (Participant player : players) {
+            try {
+                player.send(frame);
+            } catch (IOException e) {
+                System.err.println("Failed to send message to player: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends all players the latest player positions on the board.
+     */
+    private void broadcastPlayerPositions() {
+        broadcast(gameBoard.getPositionsFrame());
+    }
+
+    /**
+     * Sends all players just the move that was made last, so they can update one piece instead of the whole board.
+     */
+    private void broadcastPositionDelta() {
+        broadcast(gameBoard.getLastPositionDelta());
+    }
+
+    /**
+     * Deals Clue-Less cards (characters, weapons, rooms) randomly to all players,
+     * excluding the solution cards.
+     */
+    private void dealCardsToPlayers() {
+        int[] hands = Dealer.deal(gameBoard.getSolutionCards(), players.size(), new Random());
+        for (int i = 0; i < hands.length; i++) {
+            PlayerState playerState = gameBoard.getPlayerState(players.get(i).getCharacterName());
+            if (playerState != null) {
+                playerState.addCards(hands[i]);
+            }
+        }
+
+        // OPTIONAL: notify each player of their cards
+        for (Participant p : players) {
+            try {
+                PlayerState ps = gameBoard.getPlayerState(p.getCharacterName());
+                if (ps != null) {
+                    p.send(Message.of(Opcode.YOUR_CARDS, Cards.ids(ps.getHand())));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        gameStarted = true;
+        notifyCurrentTurnPlayer();
+
+    }
+
+    /**
+     * Notifies the current player that it is their turn, and which moves they can make.
+     */
+    private void notifyCurrentTurnPlayer() {
+        if (players.isEmpty()) return;
+        Participant currentPlayer = players.get(currentTurnIndex);
+        try {
+            currentPlayer.send(Message.of(Opcode.YOUR_TURN));
+            // which buttons to offer, so the client doesn't have to try a move to find out it's blocked
+            currentPlayer.send(Message.of(Opcode.LEGAL_MOVES, gameBoard.legalMoves(currentPlayer.getCharacterName())));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Advances the turn to the next eligible (non-eliminated) player.
+     */
+    private void nextTurn() {
+        // Check if there are any players available
+        if (players.isEmpty()) {
+            System.out.println("No players available. Cannot proceed to the next turn.");
+            return;
+        }
+
+        // Save the starting index to detect a full loop (to avoid infinite loops)
+        int startingIndex = currentTurnIndex;
+
+        // Iterate through players to find the next active (non-eliminated) player
+        do {
+            currentTurnIndex = (currentTurnIndex + 1) % players.size();
+        } while (players.get(currentTurnIndex).isEliminated() && currentTurnIndex != startingIndex);
+
+        // Check if everyone is eliminated (we made a full loop)
+        if (players.get(currentTurnIndex).isEliminated()) {
+            // All players have been eliminated
+            System.out.println("All players are eliminated. Ending game...");
+            broadcast(Message.of(Opcode.GAME_OVER, "All players are eliminated. No winner!"));
+            return;
+        }
+
+        // Notify the next turn's player
+        notifyCurrentTurnPlayer();
+    }
+
+    /**
+     * Checks if a victory condition has been met (only one player left).
+     * If so, announces the winner and ends the game.
+     */
+    private void checkForVictory() {
+
+        if (players.isEmpty()) return;
+
+        List<Participant> activePlayers = new ArrayList<>();
+        for (Participant p : players) {
+            if (!p.isEliminated()) {
+                activePlayers.add(p);
+            }
+        }
+
+        if (activePlayers.size() == 1) {
+            Participant winner = activePlayers.get(0);
+            try {
+                winner.send(Message.of(Opcode.YOU_WON));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            resetGame();
+            broadcast(winner.getCharacterName() + " has WON the game because all other players were eliminated!");
+            broadcast(Message.of(Opcode.GAME_OVER, winner.getCharacterName()));
+            System.out.println(winner.getCharacterName() + " has WON game " + id + " by default!");
+
+        }
+    }
+
+    /**
+     * @param text what went wrong
+     * @return an ERROR message to send back to a player
+     */
+    private static Message error(String text) {
+        return Message.of(Opcode.ERROR, text);
+    }
+
+    private void resetGame() {
+        gameBoard = new GameBoard();
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The Lobby class matches joining players to games.
+ *
+ * A player is seated at the oldest game that hasn't filled up yet and still has their character free. If there
+ * is no such game, a new one is opened for them. A game can be topped up with bots before it starts. Games that
+ * every person has left are closed, along with any bots still in them.
+ *
+ * Every game runs its commands on the same pool, one thread per core, so busy games spread out across the
+ * cores without each game needing a thread of its own.
+ */
+public class Lobby {
+
+    private final ReentrantLock lock = new ReentrantLock(); // guards sessions and every session's seats
+    private final List<GameSession> sessions = new ArrayList<>(); // oldest first
+    private final Executor pool;
+    private int nextId = 1;
+
+    /**
+     * Creates a lobby whose games run on a work stealing pool sized to the machine.
+     */
+    public Lobby() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true));
+    }
+
+    /**
+     * @param pool threads shared by every game to run their commands on
+     */
+    public Lobby(Executor pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Seats a player at a game. The player's character has to be set and has to be a real character.
+     * The player hears whether they got in from the game itself.
+     *
+     * @param player the player joining
+     * @return the game they joined
+     */
+    public GameSession join(Participant player) {
+        GameSession session = null;
+        lock.lock();
+        try {
+            for (GameSession open : sessions) {
+                if (open.reserve(player.getCharacterName())) {
+                    session = open;
+                    break;
+                }
+            }
+            if (session == null) {
+                session = new GameSession(nextId++, pool);
+                session.reserve(player.getCharacterName());
+                sessions.add(session);
+            }
+        } finally {
+            lock.unlock();
+        }
+        session.join(player);
+        return session;
+    }
+
+    /**
+     * Seats a bot in the first free character at a game that hasn't started yet.
+     *
+     * @param session the game to add the bot to
+     * @return false if the game has already started or has no characters left
+     */
+    public boolean addBot(GameSession session) {
+        String characterName;
+        lock.lock();
+        try {
+            characterName = sessions.contains(session) ? session.reserveBot() : null;
+        } finally {
+            lock.unlock();
+        }
+        if (characterName == null) {
+            return false;
+        }
+        session.join(new BotPlayer(characterName, session));
+        return true;
+    }
+
+    /**
+     * Takes a player out of their game, closing the game if they were the last person in it.
+     *
+     * @param session the game the player was in
+     * @param player the player leaving
+     */
+    public void leave(GameSession session, Participant player) {
+        boolean last;
+        lock.lock();
+        try {
+            last = session.release(player.getCharacterName());
+            if (last) {
+                sessions.remove(session);
+            }
+        } finally {
+            lock.unlock();
+        }
+        session.leave(player, last);
+    }
+
+    /**
+     * @return the number of games open right now, started or not
+     */
+    public int sessionCount() {
+        lock.lock();
+        try {
+            return sessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
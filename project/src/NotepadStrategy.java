@@ -0,0 +1,91 @@
+import java.util.random.RandomGenerator;
+import util.Cards;
+
+/**
+ * The NotepadStrategy class plays like someone ticking cards off a detective notepad.
+ *
+ * It crosses off its own hand and every card it is shown. When nobody can disprove its suggestion, the suggested
+ * cards it doesn't hold must be the solution. It heads for rooms it hasn't crossed off, suggests cards it hasn't
+ * crossed off either, and accuses once a single suspect, weapon and room are left.
+ */
+public class NotepadStrategy implements Strategy {
+
+    private int seat;
+    private int crossedOff; // cards known not to be the solution
+    private int known; // cards known to be the solution
+
+    @Override
+    public void start(int seat, int players, int hand) {
+        this.seat = seat;
+        this.crossedOff = hand;
+        this.known = 0;
+    }
+
+    @Override
+    public int move(BitBoard board, int legalMoves, RandomGenerator random) {
+        int rooms = 0; // reachable rooms that could still be the solution
+        for (int cells = legalMoves & BitBoard.ROOMS; cells != 0; cells &= cells - 1) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            if ((crossedOff & Cards.bit(SimulatedGame.roomCard(cell))) == 0) {
+                rooms |= BitBoard.bit(cell);
+            }
+        }
+        return Dealer.pickOne(rooms != 0 ? rooms : legalMoves, random);
+    }
+
+    @Override
+    public int suggest(int room, RandomGenerator random) {
+        return Cards.bit(Dealer.pickOne(candidates(Cards.SUSPECTS), random))
+                | Cards.bit(Dealer.pickOne(candidates(Cards.WEAPONS), random));
+    }
+
+    @Override
+    public int show(int matches, int suggester, RandomGenerator random) {
+        return Dealer.pickOne(matches, random);
+    }
+
+    @Override
+    public void observe(int suggester, int suggestion, int shower, int card) {
+        if (suggester != seat) {
+            return;
+        }
+        if (card >= 0) {
+            crossedOff |= Cards.bit(card);
+        } else if (shower < 0) {
+            known |= suggestion & ~crossedOff;
+            crossedOff |= Cards.ALL & ~known & groupsOf(known);
+        }
+    }
+
+    @Override
+    public int accuse() {
+        int suspects = candidates(Cards.SUSPECTS);
+        int weapons = candidates(Cards.WEAPONS);
+        int rooms = candidates(Cards.ROOMS);
+        if (Integer.bitCount(suspects) == 1 && Integer.bitCount(weapons) == 1 && Integer.bitCount(rooms) == 1) {
+            return suspects | weapons | rooms;
+        }
+        return 0;
+    }
+
+    /**
+     * @param group Cards.SUSPECTS, WEAPONS or ROOMS
+     * @return cards of that group that could still be the solution, never empty
+     */
+    private int candidates(int group) {
+        int left = group & ~crossedOff;
+        return left != 0 ? left : group; // only if it was misled, start that group over
+    }
+
+    /**
+     * @param cards a util.Cards mask
+     * @return every card in the same groups as the cards given
+     */
+    private static int groupsOf(int cards) {
+        int groups = 0;
+        if ((cards & Cards.SUSPECTS) != 0) groups |= Cards.SUSPECTS;
+        if ((cards & Cards.WEAPONS) != 0) groups |= Cards.WEAPONS;
+        if ((cards & Cards.ROOMS) != 0) groups |= Cards.ROOMS;
+        return groups;
+    }
+}
@@ -0,0 +1,45 @@
+import java.io.IOException;
+import net.Frame;
+import net.Message;
+
+/**
+ * @author Brandon
+ * A player seated at a GameSession. The session only talks to its players through this, so it doesn't care
+ * how they are connected to the server.
+ */
+public interface Participant {
+
+    /**
+     * @return - the character the player joined as, null before they join
+     */
+    String getCharacterName();
+
+    /**
+     * @return - true once the player has made a wrong accusation and is only watching
+     */
+    boolean isEliminated();
+
+    /**
+     * @param eliminated - true to knock the player out of the game
+     */
+    void setEliminated(boolean eliminated);
+
+    /**
+     * Queues a message for the player's client
+     * @param message - message to send
+     * @throws IOException - if the player is disconnected or too far behind to take it
+     */
+    void send(Message message) throws IOException;
+
+    /**
+     * Queues an already encoded message for the player's client
+     * @param frame - frame to send
+     * @throws IOException - if the player is disconnected or too far behind to take it
+     */
+    void send(Frame frame) throws IOException;
+
+    /**
+     * Closes the player's connection, the server notices and takes them out of their game
+     */
+    void disconnect();
+}
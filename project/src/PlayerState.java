@@ -1,11 +1,11 @@
 import java.util.List;
-import java.util.ArrayList;
+import util.Cards;
 
 /**
  * The PlayerState class represents the current status of a player in the Clue-Less game.
  *
  * It tracks the player's ID, character name, position on the board (row and column),
- * the cards the player holds, and whether the player was recently moved due to a suggestion.
+ * the cards the player holds (as a util.Cards mask), and whether the player was recently moved due to a suggestion.
  *
  * * Authors:
  *  * - Albert Rojas
@@ -16,7 +16,7 @@ public class PlayerState {
     private final String characterName;
     private int row;
     private int col;
-    private final List<String> cards;
+    private int hand; // bit 1 << card id for every card held
     private boolean recentlyMovedBySuggestion;
 
     /**
@@ -32,7 +32,6 @@ public class PlayerState {
         this.characterName = characterName;
         this.row = row;
         this.col = col;
-        this.cards = new ArrayList<>();
         this.recentlyMovedBySuggestion = false;
     }
 
@@ -80,16 +79,37 @@ public class PlayerState {
     /**
      * Retrieves the list of cards currently held by the player.
      *
-     * @return the list of card names
+     * @return the card names, in card id order
      */
-    public List<String> getCards() { return cards; }
+    public List<String> getCards() { return Cards.names(hand); }
 
     /**
-     * Adds a card to the player's list of cards.
+     * Gets the player's hand as a mask of card ids.
      *
-     * @param card the card to add
+     * @return bit 1 << id for every card held
      */
-    public void addCard(String card) { cards.add(card); }
+    public int getHand() { return hand; }
+
+    /**
+     * Adds a card to the player's hand.
+     *
+     * @param card the name of the card to add
+     */
+    public void addCard(String card) { addCard(Cards.id(card)); }
+
+    /**
+     * Adds a card to the player's hand.
+     *
+     * @param cardId the id of the card to add
+     */
+    public void addCard(int cardId) { hand |= Cards.bit(cardId); }
+
+    /**
+     * Adds several cards to the player's hand.
+     *
+     * @param cards util.Cards mask of the cards to add
+     */
+    public void addCards(int cards) { hand |= cards; }
 
     /**
      * Checks whether the player was recently moved into a room due to another player's suggestion.
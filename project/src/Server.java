@@ -1,64 +1,96 @@
 import java.awt.BorderLayout;
-import java.awt.Point;
 import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import javax.swing.*;
-import util.Commands;
+import net.Connection;
+import net.ConnectionHandler;
+import net.Frame;
+import net.Message;
+import net.MessageReader;
+import net.MessageWriter;
+import net.Opcode;
+import net.OutboundQueue;
+import net.OverflowPolicy;
+import net.Protocol;
+import net.SelectorServer;
+import util.GroupCommitWriter;
+import util.RandomLetters;
 import util.Score;
+import util.ScrambleSolver;
 import util.TournamentScoreboard;
 import util.WordFile;
 
 /**
  * The Server class manages the Clue-Less game server.
  *
- * It accepts client connections, handles player actions (joining, moving, suggesting, accusing),
- * manages the game board state, deals cards, enforces turns, and broadcasts updates to all clients.
+ * It accepts client connections, runs the word game, and hands players to the Lobby when they join a
+ * Clue-Less game. The server can host any number of games at once. Each one is a GameSession with its own
+ * board, turn order and disprove state, and every game command a player sends goes to their own session.
  *
- * Each connected player runs on a separate thread for simultaneous gameplay.
+ * By default every player socket is handled by one non-blocking selector loop. The older mode, where each
+ * connected player runs on a separate thread, can still be picked with Mode.THREAD_PER_PLAYER, or with
+ * Mode.VIRTUAL_THREADS to run each player on a cheap virtual thread instead.
+ *
+ * Messages to a player never block the game. They wait in that player's bounded outbound queue until the socket
+ * takes them, so one slow client can't hold up everybody else's turn.
  */
 public class Server extends JFrame {
 
-    private GameBoard gameBoard = new GameBoard();
+    /**
+     * How the server handles player sockets
+     */
+    public enum Mode {
+        /** one event loop thread multiplexes every player socket */
+        SELECTOR,
+        /** each player gets a thread that blocks reading their socket */
+        THREAD_PER_PLAYER,
+        /** like THREAD_PER_PLAYER but on virtual threads (Java 21+), so tens of thousands of players are cheap */
+        VIRTUAL_THREADS
+    }
+
+    private static final int PORT = 23625;
+
     private int playerCount = 0;
-    private boolean cardsDealt = false;
     private static int MAX_PLAYERS = 16; //can possibly get rid of this
+    private static final int MIN_WORDS_PER_SCRAMBLE = 20; // scrambles that make fewer words than this are replaced
+    private static final int MAX_SCRAMBLE_RETRIES = 50;
+    private static final int OUTBOUND_QUEUE_SIZE = 256; // frames a player can fall behind by
+    private static final OverflowPolicy OVERFLOW_POLICY = OverflowPolicy.COALESCE;
     private JTextArea displayArea;
     private ServerSocket server;
-    private List<Player> players = new ArrayList<>();
+    private SelectorServer selectorServer;
+    private List<Player> players = new CopyOnWriteArrayList<>(); // every connected client, joined and left from many threads
     private ExecutorService playerThreads;
     private String[] scrambles;
-    private TournamentScoreboard tournamentScoreboard;
-    private String leaderboard = "";
-    private int currentTurnIndex = 0; // index into players list
-    private boolean gameStarted = false;
-    private String lastSuggester = null;
-    private static final Map<String, int[]> startingPositions = Map.of(
-            "MissScarlet", new int[]{4, 0},
-            "ColonelMustard", new int[]{0, 2},
-            "MrsWhite", new int[]{0, 4},
-            "MrGreen", new int[]{4, 4},
-            "MrsPeacock", new int[]{4, 2},
-            "ProfessorPlum", new int[]{0, 0}
-    );
-    private Iterator<Player> disproveIterator;
-    private Player suggestingPlayer;
-    private List<String> currentSuggestionCards;
-    private boolean waitingForDisprove = false;
+    private int[] parScores; // most points possible for each scramble, same order as scrambles
+    private final TournamentScoreboard tournamentScoreboard;
+    private volatile CachedLeaderboard cachedLeaderboard; // LEADERBOARD reply every player is sent until the top changes
+    private final Lobby lobby = new Lobby();
 
 
 
 
     /**
      * Creates the Server GUI and initializes server resources,
-     * including the game board, scramble data, and thread pool for players.
+     * including the scramble data and the leaderboard. Every tournament score is on disk before it is acknowledged.
      */
     public Server() {
+        this(GroupCommitWriter.Durability.FSYNC);
+    }
+
+    /**
+     * Creates the Server GUI and initializes server resources,
+     * including the scramble data and the leaderboard.
+     * @param durability - FSYNC to force every batch of tournament scores to disk, ASYNC to leave it to the OS
+     */
+    public Server(GroupCommitWriter.Durability durability) {
         super("Server"); // title of the GUI
-        playerThreads = Executors.newCachedThreadPool();
         displayArea = new JTextArea();
         add(new JScrollPane(displayArea), BorderLayout.CENTER);
 
@@ -66,70 +98,67 @@ public class Server extends JFrame {
         setVisible(true);
 
         scrambles = WordFile.readLetterFile(new File("letters.txt")); // READS IN THE NEW LETTERS
+        gradeScrambles();
 
-        tournamentScoreboard = new TournamentScoreboard();
+        try {
+            tournamentScoreboard = TournamentScoreboard.open(Path.of("tournament.txt"), durability);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open tournament.txt", e);
+        }
     }
 
     /**
-     * Sequentially prompts each player in clockwise order to disprove the current suggestion.
-     * This method uses disproveIterator, which contains the ordered list of players starting from
-     * the player immediately after the suggester. It checks each player's hand to see if they have any of
-     * the cards in currentSuggestionCards. The first player who has one or more matching cards is
-     * sent a DISPROVE_OPTIONS message and is expected to respond before the process continues.
-
-     * If a player cannot disprove, a message is broadcast, and the method recurses to check the next player.
-     * If no players can disprove (the iterator is exhausted), a message is sent to the suggester and they are
-     * prompted to make an accusation or end their turn.
+     * Solves every scramble once at startup to find its par score. Any scramble that can't make at least
+     * MIN_WORDS_PER_SCRAMBLE words is swapped for a random scramble of the same length that can.
      */
-    private void proceedToNextDisprover() {
-        if (!disproveIterator.hasNext()) {
-            try {
-                broadcast("No one could disprove the suggestion.");
-                suggestingPlayer.output.writeObject("PROMPT_ACCUSATION_OR_END");
-                suggestingPlayer.output.flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            waitingForDisprove = false;
-            return;
+    private void gradeScrambles() {
+        int longest = 3;
+        for (String scramble : scrambles) {
+            longest = Math.max(longest, scramble.length());
         }
 
-        Player nextPlayer = disproveIterator.next();
-        PlayerState nextState = gameBoard.getPlayerState(nextPlayer.characterName);
+        ScrambleSolver solver = new ScrambleSolver(WordFile.readWordFile(), longest);
+        parScores = new int[scrambles.length];
 
-        if (nextState != null) {
-            List<String> matches = new ArrayList<>();
-            for (String card : nextState.getCards()) {
-                if (currentSuggestionCards.contains(card)) {
-                    matches.add(card);
-                }
+        for (int i = 0; i < scrambles.length; i++) {
+            List<ScrambleSolver.ScoredWord> words = solver.solve(scrambles[i]);
+            for (int retry = 0; words.size() < MIN_WORDS_PER_SCRAMBLE && retry < MAX_SCRAMBLE_RETRIES; retry++) {
+                displayMessage("\nRejected scramble " + scrambles[i] + ", it only makes " + words.size() + " words");
+                scrambles[i] = RandomLetters.letterGetter(Math.max(3, scrambles[i].length()));
+                words = solver.solve(scrambles[i]);
             }
 
-            if (!matches.isEmpty()) {
-                try {
-                    nextPlayer.output.writeObject("DISPROVE_OPTIONS " + String.join(",", matches));
-                    nextPlayer.output.flush();
-                    // Wait for their reply before continuing
-                    return;
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            } else {
-                broadcast(nextPlayer.characterName + " cannot disprove the suggestion.");
+            for (ScrambleSolver.ScoredWord word : words) {
+                parScores[i] += word.getScore();
             }
+            displayMessage("\nScramble " + scrambles[i] + ": " + words.size() + " words, par " + parScores[i]);
         }
-
-        // Continue to the next player
-        proceedToNextDisprover();
     }
 
+    /**
+     * Starts the server in selector mode, listening for incoming player connections on the designated port.
+     */
+    public void runServer() {
+        runServer(Mode.SELECTOR);
+    }
 
     /**
      * Starts the server, listening for incoming player connections on the designated port.
+     *
+     * @param mode how player sockets are handled
      */
-    public void runServer() {
+    public void runServer(Mode mode) {
         try {
-            server = new ServerSocket(23625, MAX_PLAYERS);
+            if (mode == Mode.SELECTOR) {
+                selectorServer = new SelectorServer(PORT, MAX_PLAYERS, OUTBOUND_QUEUE_SIZE, OVERFLOW_POLICY,
+                        new PlayerConnectionHandler());
+                displayMessage("Waiting for connections");
+                selectorServer.run();
+                return;
+            }
+
+            playerThreads = mode == Mode.VIRTUAL_THREADS ? newVirtualThreadExecutor() : Executors.newCachedThreadPool();
+            server = new ServerSocket(PORT, MAX_PLAYERS);
 
             try {
                 displayMessage("Waiting for connections");
@@ -145,7 +174,22 @@ public class Server extends JFrame {
     }
 
     /**
-     * Continuously accepts new player connections and starts a thread for each new player.
+     * Creates Java 21's virtual thread per task executor. It is looked up by reflection so the server still
+     * builds and runs on Java 17, where it falls back to the cached thread pool.
+     *
+     * @return an executor that starts a new virtual thread for every player
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads need Java 21, using platform threads instead");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Continuously accepts new player connections and starts a reading and a writing thread for each new player.
      *
      * @throws IOException if an error occurs while accepting connections
      */
@@ -158,6 +202,7 @@ public class Server extends JFrame {
                 Player newPlayer = new Player(connection);
                 players.add(newPlayer);
                 playerThreads.execute(newPlayer);
+                playerThreads.execute(newPlayer::writeOutbound);
 
             } catch (ClassNotFoundException interruptedException) {
                 interruptedException.printStackTrace();
@@ -165,6 +210,72 @@ public class Server extends JFrame {
         }
     }
 
+    /**
+     * A LEADERBOARD reply and the scoreboard text it was encoded from
+     */
+    private record CachedLeaderboard(String text, Frame frame) {
+    }
+
+    /**
+     * Encodes the leaderboard once and shares the frame with every player that asks, until a submission makes
+     * the top scores. Two threads racing here both encode the same text, which is harmless.
+     *
+     * @return the LEADERBOARD reply
+     */
+    private Frame leaderboardFrame() {
+        String text = tournamentScoreboard.getLeaderboard();
+        CachedLeaderboard cached = cachedLeaderboard;
+        if (cached == null || cached.text() != text) { // the scoreboard only makes a new String when the top changes
+            cached = new CachedLeaderboard(text, Frame.of(Message.of(Opcode.LEADERBOARD, text)));
+            cachedLeaderboard = cached;
+        }
+        return cached.frame();
+    }
+
+    /**
+     * @param page some rows of the leaderboard
+     * @return the LEADERBOARD_PAGE reply
+     */
+    private static Message pageMessage(TournamentScoreboard.Page page) {
+        return Message.of(Opcode.LEADERBOARD_PAGE, page.offset(), page.total(), page.rows());
+    }
+
+    /**
+     * Connects the selector loop's events to Player objects. Every callback runs on the loop thread,
+     * so commands from all players are handled one at a time in the order they arrive.
+     */
+    private class PlayerConnectionHandler implements ConnectionHandler {
+
+        @Override
+        public void onOpen(Connection connection) {
+            // getHostAddress instead of getHostName, a reverse DNS lookup would block the loop
+            displayMessage("\nConnection received from: " + connection.getInetAddress().getHostAddress());
+
+            Player newPlayer = new Player(connection);
+            connection.attach(newPlayer);
+            players.add(newPlayer);
+            try {
+                newPlayer.start();
+            } catch (IOException e) {
+                e.printStackTrace();
+                connection.close();
+            }
+        }
+
+        @Override
+        public void onMessage(Connection connection, Message message) {
+            Player player = (Player) connection.attachment();
+            if (!player.handleCommand(message)) {
+                connection.close();
+            }
+        }
+
+        @Override
+        public void onClose(Connection connection) {
+            ((Player) connection.attachment()).leave();
+        }
+    }
+
     /**
      * Displays a message in the server GUI text area.
      *
@@ -189,15 +300,19 @@ public class Server extends JFrame {
 
     /**
      * Class for players of our word game
-     * Players are eaach a thread that is added to an ArrayBlockingQueue
+     * In THREAD_PER_PLAYER mode each player is a thread that reads its own socket and a second thread that
+     * writes its outbound queue to the socket. In SELECTOR mode the selector loop does both.
      */
-    private class Player implements Runnable {
+    private class Player implements Runnable, Participant {
 
-        private final Socket connection; // connection to client
-        private final ObjectInputStream input;
-        private final ObjectOutputStream output;
+        private final Socket connection; // connection to client, null when the selector loop owns the socket
+        private final Connection channel; // selector loop connection, null when the player has its own thread
+        private final MessageReader input;
+        private final MessageWriter output; // only used by the writing thread
+        private final OutboundQueue outbound; // null when the selector loop's connection has the queue
         private String characterName;
-        private boolean eliminated = false;
+        private volatile boolean eliminated = false; // set by their game, read by whoever reads their socket
+        private GameSession session; // game the player is seated at, null until they join one
 
         /**
          * constructor for the player
@@ -205,652 +320,304 @@ public class Server extends JFrame {
          */
         public Player(Socket socket) throws ClassNotFoundException {
             connection = socket;
+            channel = null;
 
             try {
-                input = new ObjectInputStream(connection.getInputStream());
-                output = new ObjectOutputStream(connection.getOutputStream());
+                input = new MessageReader(connection.getInputStream());
+                output = new MessageWriter(connection.getOutputStream());
+                outbound = new OutboundQueue(OUTBOUND_QUEUE_SIZE, OVERFLOW_POLICY);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
 
+        /**
+         * constructor for a player whose socket is owned by the selector loop. Commands are handed to
+         * handleCommand by the loop instead of being read by the player's own thread.
+         * @param channel - non-blocking connection to the client
+         */
+        public Player(Connection channel) {
+            connection = null;
+            this.channel = channel;
+            input = null;
+            output = null;
+            outbound = null;
+        }
+
         @Override
         public void run() {
             try {
-                displayMessage("\nPlayer connected\n");
-                String clientCommand = "";
-
-                // send scrambles to client
-                output.writeObject(scrambles);
-                output.flush();
-
-                while (!clientCommand.equals(Commands.PLAYER_LEFT.toString())) {
-                    try {
-                        clientCommand = (String) input.readObject();
-                        System.out.println("[" + characterName + "] Command received: " + clientCommand);
-                        displayMessage("\n" + clientCommand);
-
-                        // Disable actions for eliminated players
-                        if (eliminated && !clientCommand.equals("WHERE")) {
-                            output.writeObject("ERROR You are eliminated. You can still observe the game.");
-                            output.flush();
-                            continue;
-                        }
-
-                        // JOIN command
-                        if (clientCommand.startsWith("JOIN")) {
-                            this.characterName = clientCommand.split(" ")[1];
-
-                            int[] start = startingPositions.get(characterName);
-                            if (start == null) {
-                                output.writeObject("FAILED JOIN: Unknown character");
-                                output.flush();
-                                broadcastPlayerPositions();
-
-                                continue;
-                            }
-
-                            boolean added = gameBoard.addPlayer(characterName, characterName, start[0], start[1]);
-
-                            if (added) {
-                                output.writeObject("JOINED " + characterName);
-                            } else {
-                                System.out.println("JOIN failed: position at (0,0) occupied or name taken");  // ← Add this
-                                output.writeObject("FAILED JOIN");
-                            }
-                            output.flush();
-                            broadcastPlayerPositions();  // <-- NEW: update all clients with everyone's positions
-                            if (!cardsDealt && players.size() >= 2) { // TODO or >= 3 or >= 6 if you want full table
-                                dealCardsToPlayers();
-                                cardsDealt = true;
-                            }
-
-
-                        }
-
-
-                        // MOVE_DIRECTION command (up, down, left, right)
-                        if (clientCommand.startsWith("MOVE_DIRECTION")) {
-                            if (eliminated) {
-                                output.writeObject("ERROR You are eliminated and cannot move.");
-                                output.flush();
-                                continue;
-                            }
-
-                            if (!characterName.equals(players.get(currentTurnIndex).characterName)) {
-                                output.writeObject("ERROR Not your turn.");
-                                output.flush();
-                                continue;
-                            }
-
-
-                            try {
-                                String direction = clientCommand.split(" ")[1];
-
-                                if (characterName == null) {
-                                    output.writeObject("ERROR Player has not joined yet.");
-                                    output.flush();
-                                    continue;
-                                }
-
-                                System.out.println("Player ID: " + characterName);
-                                PlayerState player = gameBoard.getPlayerState(characterName);
-                                if (player == null) {
-                                    System.out.println("Player not found!");
-                                    output.writeObject("MOVED false (player not found)");
-                                    output.flush();
-                                    continue;
-                                }
-
-                                int row = player.getRow();
-                                int col = player.getCol();
-                                int newRow = row, newCol = col;
-                                System.out.printf("Current position: (%d,%d)%n", row, col);
-
-                                switch (direction) {
-                                    case "UP" -> newRow--;
-                                    case "DOWN" -> newRow++;
-                                    case "LEFT" -> newCol--;
-                                    case "RIGHT" -> newCol++;
-                                }
-
-                                System.out.printf("Attempting to move %s to (%d,%d)%n", direction, newRow, newCol);
-
-                                boolean canMove = gameBoard.canMove(characterName, direction);
-                                if (canMove) {
-                                    boolean moved = gameBoard.movePlayer(characterName, newRow, newCol);
-                                    output.writeObject("MOVED " + moved + " to (" + newRow + "," + newCol + ")");
-                                    if (moved) {
-                                        broadcastPlayerPositions();
-
-                                        // NEW: Check if the player moved into a room
-                                        Room newRoom = gameBoard.getRoom(newRow, newCol);
-                                        if (newRoom != null && !newRoom.getName().equals("Hallway")) {
-                                            output.writeObject("PROMPT_SUGGESTION");
-                                            output.flush();
-                                        }else {
-                                            nextTurn();
-                                        }
-                                    }
-
-                                } else {
-                                    output.writeObject("MOVED false (Illegal move in direction: " + direction + ")");
-                                }
-                                output.flush();
-                            } catch (Exception ex) {
-                                System.err.println("Error in MOVE_DIRECTION block:");
-                                ex.printStackTrace();
-                                output.writeObject("MOVED false (Server error: " + ex.getMessage() + ")");
-                                output.flush();
-                            }
-                        }
-
-                        if (clientCommand.startsWith("SUGGEST")) {
-                            if (eliminated) {
-                                output.writeObject("ERROR You are eliminated and cannot make suggestions.");
-                                output.flush();
-                                continue;
-                            }
-
-                            if (!characterName.equals(players.get(currentTurnIndex).characterName)) {
-                                output.writeObject("ERROR Not your turn.");
-                                output.flush();
-                                continue;
-                            }
-
-
-                            try {
-                                String[] parts = clientCommand.split(" ");
-                                if (parts.length < 3) {
-                                    output.writeObject("ERROR Invalid suggestion format.");
-                                    output.flush();
-                                    return;
-                                }
-
-                                String suspect = parts[1];
-                                String weapon = parts[2];
-                                System.out.println(characterName + " made a suggestion: " + suspect + " with the " + weapon);
-
-                                Room currentRoom = gameBoard.getRoom(characterName);
-                                if (currentRoom == null) {
-                                    output.writeObject("ERROR Cannot suggest, room not found.");
-                                    output.flush();
-                                    return;
-                                }
-
-                                if (currentRoom.getName().equals("Hallway")) {
-                                    System.out.print(currentRoom.getName());
-                                    output.writeObject("ERROR Cannot make a suggestion from a hallway.");
-                                    output.flush();
-                                    continue; // <--- this keeps the socket open and loops to next command;
-                                }
-
-
-                                String roomName = currentRoom.getName();
-
-                                System.out.println(characterName + " made a suggestion: " +
-                                        suspect + " with the " + weapon + " in the " + currentRoom.getName());
-
-                                lastSuggester = characterName;
-
-                                // Move suspect (character) to current room
-                                PlayerState suspectPlayer = gameBoard.getPlayerState(suspect);
-                                if (suspectPlayer != null) {
-                                    int oldRow = suspectPlayer.getRow();
-                                    int oldCol = suspectPlayer.getCol();
-
-                                    Room oldRoom = gameBoard.getRoom(oldRow, oldCol);
-                                    if (oldRoom != null) oldRoom.removeOccupant(suspect);
-
-                                    suspectPlayer.setPosition(currentRoom.getRow(), currentRoom.getCol());
-                                    currentRoom.addOccupant(suspect);
-
-                                    broadcastPlayerPositions();
-
-                                }
-
-                                broadcast(characterName + " suggests: " + suspect + " with the " + weapon + " in the " + roomName);
-
-                                List<String> suggestionCards = List.of(suspect, weapon, roomName);
-
-                                // Set server-wide disprove state
-                                Server.this.suggestingPlayer = players.get(currentTurnIndex);
-                                Server.this.currentSuggestionCards = suggestionCards;
-                                Server.this.waitingForDisprove = true;
-
-                                List<Player> disproveOrder = new ArrayList<>();
-                                int playerCount = players.size();
-                                int i = (currentTurnIndex + 1) % playerCount;
-                                while (i != currentTurnIndex) {
-                                    disproveOrder.add(players.get(i));
-                                    i = (i + 1) % playerCount;
-                                }
-                                Server.this.disproveIterator = disproveOrder.iterator();
-
-                                Server.this.proceedToNextDisprover();
-
-
-
-
-                            } catch (Exception ex) {
-                                ex.printStackTrace();
-                                output.writeObject("ERROR Could not process suggestion.");
-                                output.flush();
-                            }
-                        }
-
-
-
-                        if (clientCommand.equals("SECRET_PASSAGE")) {
-                            PlayerState player = gameBoard.getPlayerState(characterName);
-                            if (player == null) {
-                                output.writeObject("ERROR Player not found.");
-                                output.flush();
-                                continue;
-                            }
-
-                            int currentRow = player.getRow();
-                            int currentCol = player.getCol();
-                            Room currentRoom = gameBoard.getRoom(characterName);
-
-                            if (currentRoom == null || currentRoom.getName().equals("Hallway")) {
-                                output.writeObject("ERROR Not in a room with a secret passage.");
-                                output.flush();
-                                continue;
-                            }
-
-                            Point destination = gameBoard.getSecretPassageDestination(currentRow, currentCol);
-                            if (destination == null) {
-                                output.writeObject("ERROR No secret passage from this room.");
-                                output.flush();
-                                continue;
-                            }
-
-                            Room targetRoom = gameBoard.getRoom(destination.x, destination.y);
-                            if (targetRoom == null) {
-                                output.writeObject("ERROR Destination room is invalid.");
-                                output.flush();
-                                continue;
-                            }
-
-                            currentRoom.removeOccupant(characterName);
-                            targetRoom.addOccupant(characterName);
-                            player.setPosition(destination.x, destination.y);
-
-                            output.writeObject("MOVED true to (" + destination.x + "," + destination.y + ") via secret passage");
-                            output.flush();
-                            broadcastPlayerPositions();
-                        }
-
-                        if (clientCommand.equals("END_TURN")) {
-                            nextTurn();
-                        }
-
-                        if (clientCommand.startsWith("DISPROVE_SELECTED")) {
-                            if (Server.this.waitingForDisprove) {
-                                String cardShown = clientCommand.split(" ", 2)[1];
-
-                                broadcast(characterName + " disproved the suggestion by showing a card.");
-
-                                Player suggester = Server.this.suggestingPlayer;
-                                if (suggester != null) {
-                                    suggester.output.writeObject(characterName + " showed you: " + cardShown);
-                                    suggester.output.flush();
-                                    suggester.output.writeObject("PROMPT_ACCUSATION_OR_END");
-                                    suggester.output.flush();
-                                }
-
-                                Server.this.waitingForDisprove = false;
-                            }
-                        }
-
-
-                        if (clientCommand.startsWith("ACCUSE")) {
-                            // Check if the player is already eliminated
-                            if (eliminated) {
-                                output.writeObject("ERROR: You are eliminated and cannot make accusations.");
-                                output.flush();
-                                continue;
-                            }
-
-                            // Check if it is the player's turn
-                            if (!characterName.equals(players.get(currentTurnIndex).characterName)) {
-                                output.writeObject("ERROR: It is not your turn.");
-                                output.flush();
-                                continue;
-                            }
-
-                            // Parse the accusation command
-                            String[] parts = clientCommand.split(" ", 4); // Split into 4 parts: ACCUSE, Suspect, Weapon, Room
-                            if (parts.length < 4) {
-                                output.writeObject("ERROR: Invalid accusation format. Use: ACCUSE <Suspect> <Weapon> <Room>");
-                                output.flush();
-                                continue;
-                            }
-
-                            // Extract accused character, weapon, and room from the command
-                            String accusedCharacter = parts[1];
-                            String accusedWeapon = parts[2];
-                            String accusedRoom = parts[3];
-
-                            // Check if the accusation is correct
-                            boolean correct = gameBoard.isCorrectAccusation(accusedCharacter, accusedWeapon, accusedRoom);
-
-                            if (correct) {
-                                // If the accusation is correct, declare the player the winner
-                                output.writeObject("CONGRATULATIONS! Your accusation was correct: "
-                                        + accusedCharacter + " with the " + accusedWeapon + " in the " + accusedRoom);
-                                output.flush();
+                start();
 
-                                // Broadcast the winner to all players
-
-                                broadcast(characterName + " has made a CORRECT accusation and won the game!");
-                                broadcast("GAME_OVER " + characterName);
-                                System.out.println(characterName + " WON the game!");
-                                resetGame();
-
-                                // End the game logic here, if necessary (e.g., shutting down the server or waiting for a replay)
-                            } else {
-                                // Incorrect accusation, eliminate the player
-                                eliminated = true;
-
-                                // Notify the player of their elimination
-                                output.writeObject("Your accusation was incorrect. You are now eliminated.");
-                                output.flush();
+                boolean connected = true;
+                while (connected) {
+                    connected = handleCommand(input.read());
+                }
+            } catch (Exception outer) {
+                System.err.println("Fatal error in client thread:");
+                outer.printStackTrace();
+            } finally {
+                leave();
+            }
+        }
 
-                                // Broadcast to all players that this player has been removed
-                                broadcast(characterName + " made an incorrect accusation and is eliminated from the game.");
-                                System.out.println(characterName + " has been eliminated.");
+        /**
+         * Greets a newly connected player and sends them the scrambles
+         * @throws IOException - if writing the output fails
+         */
+        private void start() throws IOException {
+            displayMessage("\nPlayer connected\n");
 
-                                // Optional: If needed, update the UI or game state for all players
-                                broadcastPlayerPositions(); // Refresh player states or positions if necessary
-                                checkForVictory(); // Check if only one player remains (optional)
+            // send scrambles to client
+            send(Message.of(Opcode.SCRAMBLES, (Object) scrambles));
+        }
 
-                                // Proceed to the next turn
-                                nextTurn();
+        /**
+         * Handles one command from the client, the same way no matter which thread read it
+         * @param clientCommand - command sent by the client
+         * @return - false once the player should be disconnected
+         */
+        private boolean handleCommand(Message clientCommand) {
+            Opcode opcode = clientCommand.getOpcode();
+            try {
+                System.out.println("[" + characterName + "] Command received: " + clientCommand);
+                displayMessage("\n" + clientCommand);
 
+                // Disable actions for eliminated players
+                if (eliminated && opcode != Opcode.WHERE && opcode != Opcode.RESYNC) {
+                    send(Message.of(Opcode.ELIMINATED));
+                    return true;
+                }
 
-                        }
+                // JOIN command
+                if (opcode == Opcode.JOIN) {
+                    if (session != null) {
+                        send(error("You are already in a game."));
+                        return true;
+                    }
 
-                            continue; // skip to next command
-                        }
+                    String character = Protocol.cardName(clientCommand.getInt(0));
+                    if (!GameSession.isCharacter(character)) {
+                        send(Message.of(Opcode.JOIN_FAILED, "Unknown character"));
+                        return true;
+                    }
 
+                    this.characterName = character;
+                    session = lobby.join(this);
+                    displayMessage("\n" + characterName + " joined game " + session.getId()
+                            + ", " + lobby.sessionCount() + " games running");
+                    return true;
+                }
 
+                // fill an empty seat at the player's table with a bot, so they don't have to wait for people
+                if (opcode == Opcode.ADD_BOT) {
+                    if (session == null) {
+                        send(error("Join a game first."));
+                    } else if (!lobby.addBot(session)) {
+                        send(error("No free seat for a bot, the game has already started."));
+                    } else {
+                        displayMessage("\nA bot joined game " + session.getId());
+                    }
+                    return true;
+                }
 
-                        // WHERE command
-                        if (clientCommand.equals("WHERE")) {
-                            if (eliminated) {
-                                output.writeObject("ERROR You are eliminated and cannot check location.");
-                                output.flush();
-                                continue;
-                            }
+                // everything else about the game is up to the game the player is in
+                if (isGameCommand(opcode)) {
+                    if (session == null) {
+                        send(error("Join a game first."));
+                        return true;
+                    }
+                    session.handle(this, clientCommand); // runs later on the game's own actor
+                    return true;
+                }
 
-                            broadcastPlayerPositions();  // Re-send everyone’s positions
-                            output.writeObject("LOCATION Sent all player positions.");
-                            output.flush();
-                        }
+                // other commands...
+                if (opcode == Opcode.PLAYER_JOINED) {
+                    playerCount++;
+                    displayMessage("\n" + playerCount + " players in the game.");
+                }
 
+                if (opcode == Opcode.PLAYER_LEFT) {
+                    displayMessage("\n" + playerCount + " players in the game.");
+                }
 
-                        // other commands...
-                        if (clientCommand.equals(Commands.PLAYER_JOINED.toString())) {
-                            playerCount++;
-                            displayMessage("\n" + playerCount + " players in the game.");
-                        }
+                if (opcode == Opcode.SCORE_WORD) {
+                    calculateScore(clientCommand.getString(0), clientCommand.getString(1));
+                }
 
-                        if (clientCommand.equals(Commands.PLAYER_LEFT.toString())) {
-                            displayMessage("\n" + playerCount + " players in the game.");
+                if (opcode == Opcode.SUBMIT_SCORE) {
+                    String name = clientCommand.getString(0);
+                    int score = clientCommand.getInt(1);
+                    int round = clientCommand.getInt(2);
+                    if (round >= 1 && round <= parScores.length) {
+                        displayMessage("\n" + name + " scored " + score + " of a par "
+                                + parScores[round - 1] + " in round " + round);
+                    }
+                    // not waited for, the selector loop goes on serving everyone while the score is written
+                    tournamentScoreboard.submit(name, score, round).whenComplete((madeLeaderboard, failure) -> {
+                        if (failure != null) {
+                            displayMessage("\nCould not save the score of " + name + ": " + failure.getMessage());
+                        } else if (madeLeaderboard) {
+                            displayMessage("\n" + name + " made the leaderboard");
                         }
+                    });
+                }
 
-                        if (!clientCommand.isEmpty() && clientCommand.charAt(0) == '?') {
-                            calculateScore(clientCommand.replace("?", ""));
-                        }
+                if (opcode == Opcode.GET_LEADERBOARD) {
+                    send(leaderboardFrame());
+                }
 
-                        if (!clientCommand.isEmpty() && clientCommand.charAt(0) == '#') {
-                            String[] scoreboard = clientCommand.replace("#", "").split(" ");
-                            leaderboard = tournamentScoreboard.SortTextFile(scoreboard[0], Integer.parseInt(scoreboard[1]), Integer.parseInt(scoreboard[2]));
-                        }
+                if (opcode == Opcode.GET_LEADERBOARD_PAGE) {
+                    send(pageMessage(tournamentScoreboard.page(clientCommand.getInt(0), clientCommand.getInt(1))));
+                }
 
-                        if (clientCommand.equals(Commands.GET_LEADERBOARD.toString())) {
-                            output.writeObject("#" + leaderboard);
-                            output.flush();
-                        }
+                if (opcode == Opcode.GET_LEADERBOARD_AROUND) {
+                    send(pageMessage(tournamentScoreboard.around(clientCommand.getString(0), clientCommand.getInt(1))));
+                }
 
-                        // Optional: debug board after every move
-                        gameBoard.printBoardDebug();
-
-                    } catch (Exception inner) {
-                        System.err.println("Error while processing client command:");
-                        inner.printStackTrace();
-                        try {
-                            output.writeObject("ERROR " + inner.getMessage());
-                            output.flush();
-                        } catch (IOException io) {
-                            io.printStackTrace();
-                        }
+                if (opcode == Opcode.GET_PLAYER_BEST) {
+                    String name = clientCommand.getString(0);
+                    TournamentScoreboard.PlayerInformation best = tournamentScoreboard.best(name);
+                    if (best == null) {
+                        send(Message.of(Opcode.PLAYER_BEST, name, -1, -1, -1));
+                    } else {
+                        send(Message.of(Opcode.PLAYER_BEST, name, best.score(), best.round(),
+                                tournamentScoreboard.rankOf(best)));
                     }
                 }
-            } catch (Exception outer) {
-                System.err.println("Fatal error in client thread:");
-                outer.printStackTrace();
-            } finally {
+
+            } catch (Exception inner) {
+                System.err.println("Error while processing client command:");
+                inner.printStackTrace();
                 try {
-                    playerCount--;
-                    players.remove(this);  // Remove this player from the list
-                    displayMessage("\nThere are currently " + playerCount + " players\n");
-                    connection.close();
-                } catch (IOException ioException) {
-                    ioException.printStackTrace();
+                    send(error(String.valueOf(inner.getMessage())));
+                } catch (IOException io) {
+                    io.printStackTrace();
                 }
             }
+            return opcode != Opcode.PLAYER_LEFT;
+        }
 
+        @Override
+        public String getCharacterName() {
+            return characterName;
         }
 
+        @Override
+        public boolean isEliminated() {
+            return eliminated;
+        }
+
+        @Override
+        public void setEliminated(boolean eliminated) {
+            this.eliminated = eliminated;
+        }
 
         /**
-         * Calculates the users current score
-         * using the score method from Util
-         * @param phrase - phrase to be scored
-         * @throws IOException - if writing the output fails
+         * Queues a message for this player's client
+         * @param message - message to send
+         * @throws IOException - if the player is disconnected or too far behind to take it
          */
-        private void calculateScore(String phrase) throws IOException {
-            String[] items = phrase.split(" ");
-            char[] upperCharArray = items[0].toUpperCase().toCharArray();
-            output.writeObject("!" + Score.calculate(items[1], upperCharArray));
-            output.flush();
+        @Override
+        public void send(Message message) throws IOException {
+            send(Frame.of(message));
         }
 
-    }
-
-    /**
-     * Broadcasts a text message to all connected players.
-     *
-     * @param message the message to send to every client
-     */
-    private void broadcast(String message) {
-        for (Player player : players) {
-            try {
-                player.output.writeObject(message);
-                player.output.flush();
-            } catch (IOException e) {
-                System.err.println("Failed to send message to player: " + e.getMessage());
+        /**
+         * Queues an already encoded message for this player's client. Never waits for the socket.
+         * @param frame - frame to send
+         * @throws IOException - if the player is disconnected or too far behind to take it
+         */
+        @Override
+        public void send(Frame frame) throws IOException {
+            boolean queued = channel != null ? channel.send(frame) : outbound.offer(frame);
+            if (!queued) {
+                disconnect();
+                throw new IOException(characterName + " is too far behind, disconnecting them");
             }
         }
-    }
 
-    /**
-     * Sends all players the latest player positions on the board.
-     */
-    private void broadcastPlayerPositions() {
-        List<PlayerState> allPlayers = gameBoard.getAllPlayers();
-        for (Player p : players) {
+        /**
+         * Writes the outbound queue to the socket until the player leaves. Runs on its own thread in the
+         * thread per player modes, so the only thread that ever waits on a slow socket is this one.
+         */
+        private void writeOutbound() {
             try {
-                StringBuilder sb = new StringBuilder("ALL_POSITIONS");
-                for (PlayerState ps : allPlayers) {
-                    sb.append(" ").append(ps.getCharacterName())
-                            .append(",").append(ps.getRow()).append(",").append(ps.getCol());
+                Frame frame;
+                while ((frame = outbound.take()) != null) {
+                    output.write(frame);
                 }
-                p.output.writeObject(sb.toString());
-                p.output.flush();
-            } catch (IOException e) {
-                e.printStackTrace();
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Stopped writing to " + characterName + ": " + e.getMessage());
+            } finally {
+                disconnect();
             }
         }
-    }
 
-    /**
-     * Deals Clue-Less cards (characters, weapons, rooms) randomly to all players,
-     * excluding the solution cards.
-     */
-    private void dealCardsToPlayers() {
-        List<String> deck = new ArrayList<>();
-
-        // Add all possible cards
-        deck.addAll(Arrays.asList(
-                "MissScarlet", "ColonelMustard", "MrsWhite",
-                "MrGreen", "MrsPeacock", "ProfessorPlum"
-        ));
-        deck.addAll(Arrays.asList(
-                "Candlestick", "Knife", "LeadPipe", "Revolver", "Rope", "Wrench"
-        ));
-        deck.addAll(Arrays.asList(
-                "Study", "Hall", "Lounge", "Library", "Billiard Room", "Dining Room",
-                "Conservatory", "Ballroom", "Kitchen"
-        ));
-
-        // Remove the solution cards
-        deck.remove(gameBoard.getSolutionCharacter());
-        deck.remove(gameBoard.getSolutionWeapon());
-        deck.remove(gameBoard.getSolutionRoom());
-
-        // Shuffle the deck
-        Collections.shuffle(deck);
-
-        // Deal cards round-robin
-        int playerIndex = 0;
-        for (String card : deck) {
-            Player player = players.get(playerIndex);
-            PlayerState playerState = gameBoard.getPlayerState(player.characterName);
-            if (playerState != null) {
-                playerState.addCard(card);
+        /**
+         * Closes the connection. Whichever thread reads it notices and calls leave.
+         */
+        @Override
+        public void disconnect() {
+            try {
+                if (connection != null) {
+                    outbound.close();
+                    connection.close();
+                } else {
+                    channel.close();
+                }
+            } catch (IOException ioException) {
+                ioException.printStackTrace();
             }
-            playerIndex = (playerIndex + 1) % players.size();
         }
 
-        // OPTIONAL: notify each player of their cards
-        for (Player p : players) {
+        /**
+         * Removes the player from the server and their game, and closes their connection
+         */
+        private void leave() {
             try {
-                PlayerState ps = gameBoard.getPlayerState(p.characterName);
-                if (ps != null) {
-                    p.output.writeObject("YOUR_CARDS " + ps.getCards());
-                    p.output.flush();
+                playerCount--;
+                players.remove(this);  // Remove this player from the list
+                if (session != null) {
+                    lobby.leave(session, this);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
+                displayMessage("\nThere are currently " + playerCount + " players\n");
+            } finally {
+                disconnect();
             }
         }
-        gameStarted = true;
-        notifyCurrentTurnPlayer();
-
-    }
-
-    /**
-     * Notifies the current player that it is their turn.
-     */
-    private void notifyCurrentTurnPlayer() {
-        if (players.isEmpty()) return;
-        Player currentPlayer = players.get(currentTurnIndex);
-        try {
-            currentPlayer.output.writeObject("YOUR_TURN");
-            currentPlayer.output.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
 
-    /**
-     * Advances the turn to the next eligible (non-eliminated) player.
-     */
-    private void nextTurn() {
-        // Check if there are any players available
-        if (players.isEmpty()) {
-            System.out.println("No players available. Cannot proceed to the next turn.");
-            return;
-        }
-
-        // Save the starting index to detect a full loop (to avoid infinite loops)
-        int startingIndex = currentTurnIndex;
-
-        // Iterate through players to find the next active (non-eliminated) player
-        do {
-            currentTurnIndex = (currentTurnIndex + 1) % players.size();
-        } while (players.get(currentTurnIndex).eliminated && currentTurnIndex != startingIndex);
-
-        // Check if everyone is eliminated (we made a full loop)
-        if (players.get(currentTurnIndex).eliminated) {
-            // All players have been eliminated
-            System.out.println("All players are eliminated. Ending game...");
-            broadcast("GAME_OVER All players are eliminated. No winner!");
-            return;
+        /**
+         * Calculates the users current score
+         * using the score method from Util
+         * @param scramble - letters the word has to be made from
+         * @param word - word to be scored
+         * @throws IOException - if writing the output fails
+         */
+        private void calculateScore(String scramble, String word) throws IOException {
+            char[] upperCharArray = scramble.toUpperCase().toCharArray();
+            send(Message.of(Opcode.WORD_SCORE, Score.calculate(word, upperCharArray)));
         }
 
-        // Notify the next turn's player
-        notifyCurrentTurnPlayer();
     }
 
-
-
     /**
-     * Checks if a victory condition has been met (only one player left).
-     * If so, announces the winner and ends the game.
+     * @param opcode - a command from a client
+     * @return - true if the command is about the game the player is in rather than the word game
      */
-    private void checkForVictory() {
-
-        if (players.isEmpty()) return;
-
-        List<Player> activePlayers = new ArrayList<>();
-        for (Player p : players) {
-            if (!p.eliminated) {
-                activePlayers.add(p);
-            }
-        }
-
-        if (activePlayers.size() == 1) {
-            Player winner = activePlayers.get(0);
-            try {
-                winner.output.writeObject("You WON! Everyone else has been eliminated.");
-                winner.output.flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-
-            resetGame();
-            broadcast(winner.characterName + " has WON the game because all other players were eliminated!");
-            broadcast("GAME_OVER " + winner.characterName);
-            System.out.println(winner.characterName + " has WON by default!");
-
-        }
-    }
-
-    private void resetGame() {
-        gameBoard = new GameBoard();
-//
+    private static boolean isGameCommand(Opcode opcode) {
+        return switch (opcode) {
+            case MOVE_DIRECTION, SECRET_PASSAGE, SUGGEST, DISPROVE_SELECTED, ACCUSE, END_TURN, WHERE, RESYNC -> true;
+            default -> false;
+        };
     }
 
     /**
-     * Finds and returns a Player object by their character name.
-     *
-     * @param name the character name
-     * @return the Player object, or null if not found
+     * @param text - what went wrong
+     * @return - an ERROR message to send back to a player
      */
-    private Player findPlayerByName(String name) {
-        for (Player p : players) {
-            if (p.characterName.equals(name)) {
-                return p;
-            }
-        }
-        return null;
+    private static Message error(String text) {
+        return Message.of(Opcode.ERROR, text);
     }
 
-
-
 }
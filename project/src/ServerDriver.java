@@ -1,12 +1,23 @@
+import util.GroupCommitWriter;
+
 import javax.swing.*;
 
 public class ServerDriver {
 
+    /**
+     * @param args - optional server mode, SELECTOR (default), THREAD_PER_PLAYER or VIRTUAL_THREADS, then optional
+     *             tournament durability, FSYNC (default) or ASYNC
+     */
     public static void main(String[] args) {
-        Server application = new Server();
+        Server.Mode mode = args.length > 0 ? Server.Mode.valueOf(args[0].toUpperCase()) : Server.Mode.SELECTOR;
+
+        GroupCommitWriter.Durability durability = args.length > 1
+                ? GroupCommitWriter.Durability.valueOf(args[1].toUpperCase()) : GroupCommitWriter.Durability.FSYNC;
+
+        Server application = new Server(durability);
         application.setTitle("Server");
         application.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         application.setLocationRelativeTo(null);
-        application.runServer();
+        application.runServer(mode);
     }
 }
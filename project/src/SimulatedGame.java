@@ -0,0 +1,157 @@
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import util.Cards;
+
+/**
+ * The SimulatedGame class plays one whole game of Clue-Less between Strategies, with no server, sockets or
+ * printing.
+ *
+ * It follows the server's rules: a step or a secret passage each turn, a suggestion from a room that pulls the
+ * suspect into it, disproving clockwise from the suggester, and elimination on a wrong accusation, the last
+ * player standing winning by default. The board is a BitBoard and the cards are util.Cards masks, so a game
+ * allocates next to nothing.
+ */
+public final class SimulatedGame {
+
+    /** a game still going after this many turns is stopped with no winner */
+    public static final int MAX_TURNS = 1000;
+
+    /** where each suspect starts, the same places GameSession uses */
+    private static final int[] START_CELLS = {
+            BitBoard.cell(4, 0), BitBoard.cell(0, 2), BitBoard.cell(0, 4),
+            BitBoard.cell(4, 4), BitBoard.cell(4, 2), BitBoard.cell(0, 0)
+    };
+
+    private final int players;
+    private final Strategy[] strategies;
+    private final BitBoard board = new BitBoard();
+    private final RandomGenerator random;
+
+    private int winner = -1;
+    private int turns = 0;
+    private int suggestions = 0;
+
+    /**
+     * Deals a new game.
+     *
+     * @param players how many players, 2 to 6
+     * @param strategy makes a new Strategy for each player
+     * @param random where the randomness comes from
+     */
+    public SimulatedGame(int players, Supplier<? extends Strategy> strategy, RandomGenerator random) {
+        if (players < 2 || players > BitBoard.PIECES) {
+            throw new IllegalArgumentException("A game needs 2 to 6 players, not " + players);
+        }
+        this.players = players;
+        this.random = random;
+        this.strategies = new Strategy[players];
+        for (int seat = 0; seat < players; seat++) {
+            strategies[seat] = strategy.get();
+        }
+    }
+
+    /**
+     * @param cell a room's cell
+     * @return the room's card id
+     */
+    public static int roomCard(int cell) {
+        return Cards.FIRST_ROOM + BitBoard.row(cell) / 2 * 3 + BitBoard.col(cell) / 2;
+    }
+
+    /**
+     * Plays the game to the end.
+     */
+    public void play() {
+        int solution = Dealer.pickSolution(random);
+        int[] hands = Dealer.deal(solution, players, random);
+        for (int seat = 0; seat < players; seat++) {
+            strategies[seat].start(seat, players, hands[seat]);
+            board.place(seat, START_CELLS[seat]);
+        }
+
+        int eliminated = 0; // bit per seat
+        int seat = 0;
+        while (turns < MAX_TURNS) {
+            turns++;
+            Strategy player = strategies[seat];
+
+            int legal = board.legalMoves(seat);
+            if (legal != 0) {
+                int to = player.move(board, legal, random);
+                if (to != BitBoard.OFF_BOARD && (legal & BitBoard.bit(to)) != 0) {
+                    board.place(seat, to); // legal already checked the step or passage
+                }
+            }
+
+            int cell = board.cellOf(seat);
+            if (BitBoard.isRoom(cell)) {
+                suggest(seat, cell, hands);
+            }
+
+            int accusation = player.accuse();
+            if (accusation != 0) {
+                if (accusation == solution) {
+                    winner = seat;
+                    return;
+                }
+                eliminated |= 1 << seat;
+                int left = ((1 << players) - 1) & ~eliminated;
+                if (Integer.bitCount(left) == 1) {
+                    winner = Integer.numberOfTrailingZeros(left); // wins by default
+                    return;
+                }
+            }
+
+            do {
+                seat = (seat + 1) % players;
+            } while ((eliminated & (1 << seat)) != 0);
+        }
+    }
+
+    private void suggest(int seat, int cell, int[] hands) {
+        suggestions++;
+        int suggestion = strategies[seat].suggest(roomCard(cell), random) | Cards.bit(roomCard(cell));
+
+        int suspect = Integer.numberOfTrailingZeros(suggestion & Cards.SUSPECTS);
+        if (suspect < players) {
+            board.place(suspect, cell); // the suspect is pulled into the room
+        }
+
+        int shower = -1;
+        int card = -1;
+        for (int i = 1; i < players; i++) {
+            int other = (seat + i) % players;
+            int matches = hands[other] & suggestion;
+            if (matches != 0) {
+                shower = other;
+                card = strategies[other].show(matches, seat, random);
+                break;
+            }
+        }
+
+        for (int i = 0; i < players; i++) {
+            strategies[i].observe(seat, suggestion, shower, i == seat ? card : -1);
+        }
+    }
+
+    /**
+     * @return seat of the winner, or -1 if nobody won
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return how many turns were played
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * @return how many suggestions were made
+     */
+    public int getSuggestions() {
+        return suggestions;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * The SimulationStats class adds up the results of simulated games.
+ *
+ * It keeps totals and a histogram of game lengths rather than every game, so it stays the same size however
+ * many games are played, and two of them can be merged when parallel batches finish.
+ */
+public class SimulationStats {
+
+    private final long[] winsBySeat;
+    private final long[] lengths = new long[SimulatedGame.MAX_TURNS + 1]; // games by number of turns
+    private long games;
+    private long noWinner;
+    private long turns;
+    private long suggestions;
+
+    /**
+     * @param players how many players each game has
+     */
+    public SimulationStats(int players) {
+        winsBySeat = new long[players];
+    }
+
+    /**
+     * Adds a finished game.
+     *
+     * @param game the game
+     */
+    public void add(SimulatedGame game) {
+        games++;
+        turns += game.getTurns();
+        suggestions += game.getSuggestions();
+        lengths[game.getTurns()]++;
+        if (game.getWinner() >= 0) {
+            winsBySeat[game.getWinner()]++;
+        } else {
+            noWinner++;
+        }
+    }
+
+    /**
+     * Adds everything counted by another SimulationStats to this one.
+     *
+     * @param other stats for games with the same number of players
+     * @return this
+     */
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        noWinner += other.noWinner;
+        turns += other.turns;
+        suggestions += other.suggestions;
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getNoWinner() {
+        return noWinner;
+    }
+
+    /**
+     * @param seat a seat
+     * @return the share of games won from that seat, 0 to 1
+     */
+    public double winRate(int seat) {
+        return games == 0 ? 0 : (double) winsBySeat[seat] / games;
+    }
+
+    /**
+     * @return the average number of turns in a game
+     */
+    public double meanTurns() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * @return the average number of suggestions in a game
+     */
+    public double meanSuggestions() {
+        return games == 0 ? 0 : (double) suggestions / games;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the fewest turns that at least that share of games finished within
+     */
+    public int turnsPercentile(double percentile) {
+        long needed = (long) Math.ceil(games * percentile / 100);
+        long seen = 0;
+        for (int length = 0; length < lengths.length; length++) {
+            seen += lengths[length];
+            if (seen >= needed && seen > 0) {
+                return length;
+            }
+        }
+        return SimulatedGame.MAX_TURNS;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d games, %d with no winner%n", games, noWinner));
+        text.append(String.format("turns: mean %.1f, p50 %d, p90 %d, p99 %d%n",
+                meanTurns(), turnsPercentile(50), turnsPercentile(90), turnsPercentile(99)));
+        text.append(String.format("suggestions per game: %.1f%n", meanSuggestions()));
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            text.append(String.format("seat %d wins %.1f%%%n", seat, winRate(seat) * 100));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * The Simulator class plays lots of headless games in parallel and adds up the results.
+ *
+ * The games are split in halves until a batch is small enough, and the batches run on a ForkJoinPool. Every
+ * batch has its own SplittableRandom split off its parent's, so no two threads share a random number generator
+ * and a run gives the same numbers for the same seed however the work is spread over threads.
+ *
+ * Run it on its own to get balance numbers and a rough benchmark of the game engine:
+ * java Simulator [games] [players] [seed]
+ */
+public class Simulator {
+
+    /** games played by one task without splitting further */
+    private static final long BATCH = 1024;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool threads to play the games on
+     */
+    public Simulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Plays games and waits for all of them to finish.
+     *
+     * @param games how many games to play
+     * @param players how many players in each game, 2 to 6
+     * @param strategy makes a new Strategy for each player of each game
+     * @param seed seed for the random numbers, the same seed gives the same results
+     * @return the combined results
+     */
+    public SimulationStats run(long games, int players, Supplier<? extends Strategy> strategy, long seed) {
+        return pool.invoke(new Batch(games, players, strategy, new SplittableRandom(seed)));
+    }
+
+    /**
+     * A share of the games, split again if it is bigger than BATCH
+     */
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but a Batch is never serialized
+    private static class Batch extends RecursiveTask<SimulationStats> {
+
+        private final long games;
+        private final int players;
+        private final Supplier<? extends Strategy> strategy;
+        private final SplittableRandom random;
+
+        Batch(long games, int players, Supplier<? extends Strategy> strategy, SplittableRandom random) {
+            this.games = games;
+            this.players = players;
+            this.strategy = strategy;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (games > BATCH) {
+                long half = games / 2;
+                Batch right = new Batch(games - half, players, strategy, random.split());
+                right.fork();
+                SimulationStats left = new Batch(half, players, strategy, random).compute();
+                return left.merge(right.join());
+            }
+
+            SimulationStats stats = new SimulationStats(players);
+            for (long i = 0; i < games; i++) {
+                SimulatedGame game = new SimulatedGame(players, strategy, random);
+                game.play();
+                stats.add(game);
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * @param args - optional number of games (default 1000000), players (default 6) and seed
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        Simulator simulator = new Simulator(ForkJoinPool.commonPool());
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.run(games, players, NotepadStrategy::new, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(stats);
+        System.out.printf("%.2f s, %.0f games/s on %d threads, seed %d%n",
+                seconds, games / seconds, ForkJoinPool.commonPool().getParallelism(), seed);
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * A Strategy makes one player's decisions in a simulated game.
+ *
+ * Cards are util.Cards ids and masks, cells and pieces are BitBoard numbers, and seats are 0 up to the number
+ * of players, seat i playing suspect i. A new Strategy is made for every player of every game, so it can keep
+ * whatever it has learned in fields.
+ */
+public interface Strategy {
+
+    /**
+     * Called once before the first turn.
+     *
+     * @param seat this player's seat
+     * @param players how many players are in the game
+     * @param hand util.Cards mask of the cards this player was dealt
+     */
+    void start(int seat, int players, int hand);
+
+    /**
+     * Picks where to move this turn.
+     *
+     * @param board the board, not to be changed
+     * @param legalMoves mask of the cells the player can reach, never empty
+     * @param random where the randomness comes from
+     * @return one of the cells in legalMoves, or BitBoard.OFF_BOARD to stay put
+     */
+    int move(BitBoard board, int legalMoves, RandomGenerator random);
+
+    /**
+     * Picks a suggestion to make from a room.
+     *
+     * @param room card id of the room the player is in
+     * @param random where the randomness comes from
+     * @return util.Cards mask of one suspect and one weapon
+     */
+    int suggest(int room, RandomGenerator random);
+
+    /**
+     * Picks which card to show another player's suggestion.
+     *
+     * @param matches util.Cards mask of the suggested cards this player holds, never empty
+     * @param suggester seat of the player who made the suggestion
+     * @param random where the randomness comes from
+     * @return id of one of the cards in matches
+     */
+    int show(int matches, int suggester, RandomGenerator random);
+
+    /**
+     * Hears about a suggestion, whoever made it. Only the suggester is told which card was shown.
+     *
+     * @param suggester seat of the player who made the suggestion
+     * @param suggestion util.Cards mask of the suspect, weapon and room
+     * @param shower seat of the player who showed a card, or -1 if nobody could
+     * @param card id of the card shown, or -1 if this player wasn't the suggester or nobody showed one
+     */
+    void observe(int suggester, int suggestion, int shower, int card);
+
+    /**
+     * Decides whether to accuse at the end of the turn.
+     *
+     * @return util.Cards mask of one suspect, one weapon and one room, or 0 not to accuse
+     */
+    int accuse();
+}
@@ -0,0 +1,152 @@
+package net;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * @author Brandon
+ * One client socket owned by a SelectorServer. Incoming bytes are collected until a whole message is there and
+ * outgoing frames wait in a bounded OutboundQueue until the socket can take them, so nothing ever blocks the event
+ * loop and a client that stops reading can't make the server run out of memory.
+ */
+public class Connection {
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final SocketChannel channel;
+    private final SelectorServer server;
+    private final MessageDecoder decoder = new MessageDecoder();
+    private ByteBuffer inbound = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final OutboundQueue outbound;
+    private ByteBuffer writing; // frame the socket has only taken part of, only touched by the loop thread
+    private SelectionKey key;
+    private Object attachment;
+    private volatile boolean closed = false;
+
+    Connection(SocketChannel channel, SelectorServer server, OutboundQueue outbound) {
+        this.channel = channel;
+        this.server = server;
+        this.outbound = outbound;
+        this.writing = ByteBuffer.wrap(MessageCodec.header()); // goes out ahead of the first frame
+    }
+
+    /**
+     * Queues a frame for the client and asks the event loop to send it. Never blocks, so it is safe to call from
+     * the loop thread and from any other thread.
+     * @param frame - frame to send
+     * @return - false if the client's queue overflowed and the connection is being closed
+     * @throws IOException - if the connection is already closed
+     */
+    public boolean send(Frame frame) throws IOException {
+        if (closed) {
+            throw new IOException("Connection closed");
+        }
+        if (!outbound.offer(frame)) {
+            close();
+            return false;
+        }
+        server.requestWrite(this);
+        return true;
+    }
+
+    /**
+     * @return - address of the client
+     */
+    public InetAddress getInetAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    /**
+     * @return - whatever the handler attached to this connection, usually the player object
+     */
+    public Object attachment() {
+        return attachment;
+    }
+
+    /**
+     * Lets the handler keep its own object with the connection
+     * @param attachment - object to keep
+     */
+    public void attach(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Closes the connection. The handler's onClose is called from the event loop.
+     */
+    public void close() {
+        server.close(this);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void register(SelectionKey key) {
+        this.key = key;
+    }
+
+    SelectionKey key() {
+        return key;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    void markClosed() {
+        closed = true;
+        outbound.close();
+    }
+
+    /**
+     * Reads whatever the socket has and hands every complete message to the handler
+     * @return - false if the client hung up
+     */
+    boolean read(ConnectionHandler handler) throws IOException {
+        if (!inbound.hasRemaining()) {
+            ByteBuffer bigger = ByteBuffer.allocate(inbound.capacity() * 2); // a message bigger than the buffer
+            inbound.flip();
+            bigger.put(inbound);
+            inbound = bigger;
+        }
+
+        int read = channel.read(inbound);
+        if (read == -1) {
+            return false;
+        }
+
+        inbound.flip();
+        Message message;
+        while (!closed && (message = decoder.next(inbound)) != null) {
+            handler.onMessage(this, message);
+        }
+        inbound.compact();
+        return true;
+    }
+
+    /**
+     * Writes as much of the queue as the socket will take without blocking. Only called on the loop thread.
+     * @return - true if everything queued has been written
+     */
+    boolean writeQueued() throws IOException {
+        while (true) {
+            if (writing == null) {
+                Frame next = outbound.poll();
+                if (next == null) {
+                    return true;
+                }
+                writing = ByteBuffer.wrap(next.bytes());
+            }
+
+            channel.write(writing);
+            if (writing.hasRemaining()) {
+                return false; // socket buffer is full, wait for it to drain
+            }
+            writing = null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package net;
+
+/**
+ * @author Brandon
+ * Callbacks from the SelectorServer event loop. They are all called on the loop thread, so an implementation doesn't
+ * have to worry about two of them running at the same time, but it must not block.
+ */
+public interface ConnectionHandler {
+
+    /**
+     * A client has connected
+     * @param connection - the new connection
+     */
+    void onOpen(Connection connection);
+
+    /**
+     * A full message has arrived from a client
+     * @param connection - connection the message came from
+     * @param message - the message
+     */
+    void onMessage(Connection connection, Message message);
+
+    /**
+     * The connection is gone, either the client hung up or it was closed on our side
+     * @param connection - the closed connection
+     */
+    void onClose(Connection connection);
+}
@@ -0,0 +1,44 @@
+package net;
+
+/**
+ * @author Brandon
+ * A message that has already been encoded. Broadcasts encode a message once and hand the same frame to every
+ * player's queue instead of encoding it again for each one. The message is kept too, so a player in the same
+ * process, like a bot, can read it without decoding the bytes.
+ */
+public final class Frame {
+
+    private final Message message;
+    private final byte[] bytes;
+
+    private Frame(Message message, byte[] bytes) {
+        this.message = message;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param message - message to encode
+     * @return - the encoded frame
+     */
+    public static Frame of(Message message) {
+        return new Frame(message, MessageCodec.encode(message));
+    }
+
+    public Opcode getOpcode() {
+        return message.getOpcode();
+    }
+
+    /**
+     * @return - the message the frame was encoded from
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * @return - the frame's bytes, length included. Shared by every queue the frame is in, so never change them
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+}
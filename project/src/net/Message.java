@@ -0,0 +1,123 @@
+package net;
+
+import java.util.Arrays;
+
+/**
+ * @author Brandon
+ * One message of the binary protocol, an opcode and the fields its layout asks for. Byte and int fields are kept
+ * as Integers, byte lists as int[], strings as String and string lists as String[].
+ */
+public final class Message {
+
+    private final Opcode opcode;
+    private final Object[] fields;
+
+    private Message(Opcode opcode, Object[] fields) {
+        this.opcode = opcode;
+        this.fields = fields;
+    }
+
+    /**
+     * Makes a message, checking that the fields match the opcode's layout
+     * @param opcode - kind of message
+     * @param fields - one value per letter of the layout. A String[] has to be cast to Object so it isn't spread
+     * @return - the message
+     */
+    public static Message of(Opcode opcode, Object... fields) {
+        String layout = opcode.layout();
+        if (fields.length != layout.length()) {
+            throw new IllegalArgumentException(opcode + " takes " + layout.length() + " fields, not " + fields.length);
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            Object field = fields[i];
+            boolean fits = switch (layout.charAt(i)) {
+                case 'b' -> field instanceof Integer value && value >= 0 && value <= 0xFF;
+                case 'i' -> field instanceof Integer;
+                case 's' -> field instanceof String;
+                case 'B' -> field instanceof int[] values && fitInBytes(values);
+                case 'S' -> field instanceof String[] values && Arrays.stream(values).noneMatch(v -> v == null);
+                default -> false;
+            };
+            if (!fits) {
+                throw new IllegalArgumentException("Field " + i + " of " + opcode + " can't be " + field);
+            }
+        }
+        return new Message(opcode, fields.clone());
+    }
+
+    public Opcode getOpcode() {
+        return opcode;
+    }
+
+    /**
+     * @param index - which field
+     * @return - a byte or int field
+     */
+    public int getInt(int index) {
+        return (Integer) fields[index];
+    }
+
+    /**
+     * @param index - which field
+     * @return - a string field
+     */
+    public String getString(int index) {
+        return (String) fields[index];
+    }
+
+    /**
+     * @param index - which field
+     * @return - a byte list field
+     */
+    public int[] getInts(int index) {
+        return (int[]) fields[index];
+    }
+
+    /**
+     * @param index - which field
+     * @return - a string list field
+     */
+    public String[] getStrings(int index) {
+        return (String[]) fields[index];
+    }
+
+    Object field(int index) {
+        return fields[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Message other && opcode == other.opcode && Arrays.deepEquals(fields, other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * opcode.hashCode() + Arrays.deepHashCode(fields);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(opcode.name());
+        for (Object field : fields) {
+            text.append(' ');
+            if (field instanceof int[] values) {
+                text.append(Arrays.toString(values));
+            } else if (field instanceof String[] values) {
+                text.append(Arrays.toString(values));
+            } else {
+                text.append(field);
+            }
+        }
+        return text.toString();
+    }
+
+    private static boolean fitInBytes(int[] values) {
+        for (int value : values) {
+            if (value < 0 || value > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
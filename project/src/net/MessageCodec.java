@@ -0,0 +1,202 @@
+package net;
+
+import java.io.ByteArrayOutputStream;
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Brandon
+ * Turns messages into bytes and back. A stream starts with a three byte header, the magic number and the protocol
+ * version, and after that every message is one frame:
+ * [length of the rest as a varint][opcode byte][fields in layout order].
+ * Bytes and ints are fixed width, lengths and counts are varints and strings are UTF-8.
+ */
+public final class MessageCodec {
+
+    public static final int HEADER_LENGTH = 3;
+
+    private MessageCodec() {
+    }
+
+    /**
+     * @return - the bytes every stream has to start with
+     */
+    public static byte[] header() {
+        return new byte[]{(byte) (Protocol.MAGIC >> 8), (byte) Protocol.MAGIC, Protocol.VERSION};
+    }
+
+    /**
+     * Checks a stream header
+     * @param buffer - buffer holding at least HEADER_LENGTH bytes
+     * @throws ProtocolException - if the other side isn't speaking this protocol or version
+     */
+    public static void checkHeader(ByteBuffer buffer) throws ProtocolException {
+        short magic = buffer.getShort();
+        byte version = buffer.get();
+        if (magic != Protocol.MAGIC) {
+            throw new ProtocolException("Not a Clue-Less stream");
+        }
+        if (version != Protocol.VERSION) {
+            throw new ProtocolException("Unsupported protocol version " + version + ", expected " + Protocol.VERSION);
+        }
+    }
+
+    /**
+     * Encodes a message as one whole frame, length included
+     * @param message - message to encode
+     * @return - the frame's bytes
+     */
+    public static byte[] encode(Message message) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(32);
+        body.write(message.getOpcode().code());
+
+        String layout = message.getOpcode().layout();
+        for (int i = 0; i < layout.length(); i++) {
+            switch (layout.charAt(i)) {
+                case 'b' -> body.write(message.getInt(i));
+                case 'i' -> writeInt(body, message.getInt(i));
+                case 's' -> writeString(body, message.getString(i));
+                case 'B' -> {
+                    int[] values = message.getInts(i);
+                    writeVarint(body, values.length);
+                    for (int value : values) {
+                        body.write(value);
+                    }
+                }
+                case 'S' -> {
+                    String[] values = message.getStrings(i);
+                    writeVarint(body, values.length);
+                    for (String value : values) {
+                        writeString(body, value);
+                    }
+                }
+                default -> throw new IllegalStateException("Bad layout for " + message.getOpcode());
+            }
+        }
+
+        byte[] bodyBytes = body.toByteArray();
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(bodyBytes.length + 3);
+        writeVarint(frame, bodyBytes.length);
+        frame.write(bodyBytes, 0, bodyBytes.length);
+        return frame.toByteArray();
+    }
+
+    /**
+     * Decodes the part of a frame after the length
+     * @param body - exactly the opcode and fields of one frame
+     * @return - the message
+     * @throws ProtocolException - if the bytes aren't a valid message
+     */
+    public static Message decode(ByteBuffer body) throws ProtocolException {
+        try {
+            int code = body.get() & 0xFF;
+            Opcode opcode = Opcode.fromCode(code);
+            if (opcode == null) {
+                throw new ProtocolException("Unknown opcode " + code);
+            }
+
+            String layout = opcode.layout();
+            Object[] fields = new Object[layout.length()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = switch (layout.charAt(i)) {
+                    case 'b' -> body.get() & 0xFF;
+                    case 'i' -> body.getInt();
+                    case 's' -> readString(body);
+                    case 'B' -> {
+                        int[] values = new int[readCount(body)];
+                        for (int j = 0; j < values.length; j++) {
+                            values[j] = body.get() & 0xFF;
+                        }
+                        yield values;
+                    }
+                    case 'S' -> {
+                        String[] values = new String[readCount(body)];
+                        for (int j = 0; j < values.length; j++) {
+                            values[j] = readString(body);
+                        }
+                        yield values;
+                    }
+                    default -> throw new IllegalStateException("Bad layout for " + opcode);
+                };
+            }
+
+            if (body.hasRemaining()) {
+                throw new ProtocolException(body.remaining() + " extra bytes after " + opcode);
+            }
+            return Message.of(opcode, fields);
+        } catch (BufferUnderflowException e) {
+            throw new ProtocolException("Frame ended in the middle of a field");
+        }
+    }
+
+    /**
+     * Reads a varint if all of its bytes are in the buffer
+     * @param buffer - buffer to read from
+     * @return - the value, or -1 if the buffer ends first. The buffer's position is only moved if it was read
+     * @throws ProtocolException - if the varint is longer than an int
+     */
+    public static int readVarint(ByteBuffer buffer) throws ProtocolException {
+        int start = buffer.position();
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                buffer.position(start);
+                return -1;
+            }
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ProtocolException("Varint is too long");
+    }
+
+    /**
+     * Checks a frame length read off the wire
+     * @param length - length of the frame's body
+     * @throws ProtocolException - if no valid frame is that long
+     */
+    public static void checkLength(int length) throws ProtocolException {
+        if (length < 1 || length > Protocol.MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Bad frame length " + length);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static int readCount(ByteBuffer body) throws ProtocolException {
+        int count = readVarint(body);
+        if (count < 0 || count > body.remaining()) {
+            throw new ProtocolException("Bad length " + count);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer body) throws ProtocolException {
+        byte[] bytes = new byte[readCount(body)];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
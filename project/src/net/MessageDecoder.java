@@ -0,0 +1,44 @@
+package net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Brandon
+ * Reads messages out of raw bytes as they arrive, without blocking on a stream. Used by the selector loop, where a
+ * read can end anywhere, even in the middle of a frame's length.
+ */
+public class MessageDecoder {
+
+    private boolean headerRead = false;
+
+    /**
+     * Decodes the next message from the buffer if all of its bytes are there. If they aren't the buffer is left where
+     * it was so the call can be repeated once more bytes have been read.
+     * @param buffer - bytes read from the client, ready for reading
+     * @return - the next message, or null if more bytes are needed
+     * @throws IOException - if the bytes aren't a stream of messages
+     */
+    public Message next(ByteBuffer buffer) throws IOException {
+        if (!headerRead) {
+            if (buffer.remaining() < MessageCodec.HEADER_LENGTH) return null;
+            MessageCodec.checkHeader(buffer);
+            headerRead = true;
+        }
+
+        int start = buffer.position();
+        int length = MessageCodec.readVarint(buffer);
+        if (length == -1) return null;
+        MessageCodec.checkLength(length);
+
+        if (buffer.remaining() < length) {
+            buffer.position(start); // not enough bytes yet, try again after the next read
+            return null;
+        }
+
+        ByteBuffer body = buffer.slice();
+        body.limit(length);
+        buffer.position(buffer.position() + length);
+        return MessageCodec.decode(body);
+    }
+}
@@ -0,0 +1,66 @@
+package net;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Brandon
+ * Reads messages from a blocking stream, like a socket's input stream
+ */
+public class MessageReader implements AutoCloseable {
+
+    private final DataInputStream input;
+    private boolean headerRead = false;
+
+    /**
+     * @param input - stream to read from. Nothing is read until the first message is asked for
+     */
+    public MessageReader(InputStream input) {
+        this.input = new DataInputStream(input);
+    }
+
+    /**
+     * Blocks until the next message has arrived
+     * @return - the message
+     * @throws EOFException - if the other side closed the stream
+     * @throws IOException - if reading fails or the bytes aren't a message
+     */
+    public Message read() throws IOException {
+        if (!headerRead) {
+            byte[] header = new byte[MessageCodec.HEADER_LENGTH];
+            input.readFully(header);
+            MessageCodec.checkHeader(ByteBuffer.wrap(header));
+            headerRead = true;
+        }
+
+        int length = readVarint();
+        MessageCodec.checkLength(length);
+        byte[] body = new byte[length];
+        input.readFully(body);
+        return MessageCodec.decode(ByteBuffer.wrap(body));
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ProtocolException("Varint is too long");
+    }
+}
@@ -0,0 +1,51 @@
+package net;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author Brandon
+ * Writes messages to a stream, like a socket's output stream or a Connection's. Every message is flushed as soon as
+ * it is written. Not thread safe, callers that share a writer have to take turns.
+ */
+public class MessageWriter implements AutoCloseable {
+
+    private final OutputStream output;
+    private boolean headerWritten = false;
+
+    /**
+     * @param output - stream to write to. The stream header goes out with the first message
+     */
+    public MessageWriter(OutputStream output) {
+        this.output = new BufferedOutputStream(output);
+    }
+
+    /**
+     * Sends a message
+     * @param message - message to send
+     * @throws IOException - if writing fails
+     */
+    public void write(Message message) throws IOException {
+        write(Frame.of(message));
+    }
+
+    /**
+     * Sends a message that has already been encoded
+     * @param frame - frame to send
+     * @throws IOException - if writing fails
+     */
+    public void write(Frame frame) throws IOException {
+        if (!headerWritten) {
+            output.write(MessageCodec.header());
+            headerWritten = true;
+        }
+        output.write(frame.bytes());
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
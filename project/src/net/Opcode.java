@@ -0,0 +1,108 @@
+package net;
+
+/**
+ * @author Brandon
+ * Every kind of message the client and server send each other. Each opcode has a one byte code that goes on the
+ * wire and a layout that says what fields follow it:
+ * b - unsigned byte (card ids, rows, columns, directions and flags),
+ * i - four byte int,
+ * s - string,
+ * B - list of unsigned bytes,
+ * S - list of strings.
+ */
+public enum Opcode {
+
+    // client to server
+    PLAYER_JOINED(0x01, ""),
+    PLAYER_LEFT(0x02, ""),
+    GET_LEADERBOARD(0x03, ""),
+    JOIN(0x04, "b"), // character
+    MOVE_DIRECTION(0x05, "b"), // direction
+    SECRET_PASSAGE(0x06, ""),
+    SUGGEST(0x07, "bb"), // suspect, weapon
+    DISPROVE_SELECTED(0x08, "b"), // card shown
+    ACCUSE(0x09, "bbb"), // suspect, weapon, room
+    END_TURN(0x0A, ""),
+    WHERE(0x0B, ""),
+    SCORE_WORD(0x0C, "ss"), // scramble, guess
+    SUBMIT_SCORE(0x0D, "sii"), // name, score, round
+    RESYNC(0x0E, ""), // asks for a fresh ALL_POSITIONS after missing a POSITION_DELTA
+    ADD_BOT(0x0F, ""), // seats a bot at the sender's table
+    GET_LEADERBOARD_PAGE(0x10, "ii"), // rank of the first row, most rows
+    GET_LEADERBOARD_AROUND(0x11, "si"), // player name, most rows
+    GET_PLAYER_BEST(0x12, "s"), // player name
+
+    // server to client
+    SCRAMBLES(0x40, "S"),
+    WORD_SCORE(0x41, "i"), // points for the last guess
+    LEADERBOARD(0x42, "s"),
+    JOINED(0x43, "b"), // character
+    JOIN_FAILED(0x44, "s"), // reason
+    YOUR_CARDS(0x45, "B"),
+    YOUR_TURN(0x46, ""),
+    ALL_POSITIONS(0x47, "iB"), // board version, then character, row, column for every player
+    LOCATION(0x48, "bb"), // row, column
+    MOVED(0x49, "bbb"), // row, column, 1 if it was through a secret passage
+    MOVE_FAILED(0x4A, "s"), // reason
+    PROMPT_SUGGESTION(0x4B, ""),
+    SUGGESTION(0x4C, "bbbb"), // suggester, suspect, weapon, room
+    DISPROVE_OPTIONS(0x4D, "B"),
+    CARD_SHOWN(0x4E, "bb"), // player who showed it, card
+    PROMPT_ACCUSATION_OR_END(0x4F, ""),
+    ACCUSATION_RESULT(0x50, "bbbb"), // 1 if correct, suspect, weapon, room
+    ELIMINATED(0x51, ""),
+    YOU_WON(0x52, ""),
+    GAME_OVER(0x53, "s"), // winner
+    NOTICE(0x54, "s"), // news for every player
+    ERROR(0x55, "s"),
+    POSITION_DELTA(0x56, "ibbbbb"), // board version, character, from row, from column, to row, to column
+    LEGAL_MOVES(0x57, "b"), // bit 1 << direction for each open direction, 1 << Protocol.PASSAGE for a secret passage
+    DISPROVE_RESULT(0x58, "bb"), // character asked to disprove, 1 if they showed a card or 0 if they couldn't
+    LEADERBOARD_PAGE(0x59, "iiS"), // rank of the first row, scores altogether, rows
+    PLAYER_BEST(0x5A, "siii"); // player name, score, round, rank, all -1 if they have no scores
+
+    private static final Opcode[] BY_CODE = new Opcode[256];
+
+    static {
+        for (Opcode opcode : values()) {
+            BY_CODE[opcode.code] = opcode;
+        }
+    }
+
+    private final int code;
+    private final String layout;
+
+    Opcode(int code, String layout) {
+        this.code = code;
+        this.layout = layout;
+    }
+
+    /**
+     * @return - the byte that stands for this opcode on the wire
+     */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * @return - one letter per field, see the class comment
+     */
+    public String layout() {
+        return layout;
+    }
+
+    /**
+     * @return - true if this message is a full picture of some state, so a newer one makes an older one useless
+     */
+    public boolean isSnapshot() {
+        return this == ALL_POSITIONS || this == LEADERBOARD;
+    }
+
+    /**
+     * @param code - byte read off the wire
+     * @return - the opcode, or null if the code isn't one
+     */
+    public static Opcode fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
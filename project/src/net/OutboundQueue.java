@@ -0,0 +1,158 @@
+package net;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Brandon
+ * A bounded queue of frames waiting to be written to one client. The game adds frames from whatever thread it is
+ * running on and never waits, a single writer takes them off and does the slow socket writes. When a client falls
+ * so far behind that the queue is full the overflow policy decides what happens.
+ */
+public class OutboundQueue {
+
+    private final Frame[] ring;
+    private final OverflowPolicy policy;
+    // a lock instead of synchronized so a virtual thread waiting in take doesn't pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int head = 0; // index of the oldest frame
+    private int size = 0;
+    private int dropped = 0;
+    private boolean closed = false;
+
+    /**
+     * @param capacity - most frames that can wait at once
+     * @param policy - what to do when the queue is full
+     */
+    public OutboundQueue(int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.ring = new Frame[capacity];
+        this.policy = policy;
+    }
+
+    /**
+     * Adds a frame without ever blocking
+     * @param frame - frame to send
+     * @return - false if the client is too far behind and should be disconnected
+     */
+    public boolean offer(Frame frame) {
+        lock.lock();
+        try {
+            if (closed) {
+                return true; // the client is already on its way out
+            }
+            if (size < ring.length) {
+                ring[(head + size++) % ring.length] = frame;
+                notEmpty.signal();
+                return true;
+            }
+
+            switch (policy) {
+                case DROP -> {
+                    dropped++;
+                    return true;
+                }
+                case COALESCE -> {
+                    if (frame.getOpcode().isSnapshot()) {
+                        // the newest queued snapshot of the same kind is out of date now, send this one in its place
+                        for (int i = size - 1; i >= 0; i--) {
+                            int slot = (head + i) % ring.length;
+                            if (ring[slot].getOpcode() == frame.getOpcode()) {
+                                ring[slot] = frame;
+                                dropped++;
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the oldest frame without blocking
+     * @return - the frame, or null if the queue is empty
+     */
+    public Frame poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the oldest frame, waiting for one if the queue is empty
+     * @return - the frame, or null once the queue has been closed and emptied
+     * @throws InterruptedException - if the writer is interrupted while waiting
+     */
+    public Frame take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            return removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the queue taking new frames and wakes the writer. Frames already queued can still be taken.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return - number of frames waiting
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return - how many frames were dropped or replaced because the queue was full
+     */
+    public int dropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Frame removeFirst() {
+        Frame frame = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+        return frame;
+    }
+}
@@ -0,0 +1,14 @@
+package net;
+
+/**
+ * @author Brandon
+ * What to do when a client reads so slowly that its outbound queue fills up
+ */
+public enum OverflowPolicy {
+    /** throw away the new message, the client never sees it */
+    DROP,
+    /** replace a queued snapshot of the same kind with the new one, disconnect if there is nothing to replace */
+    COALESCE,
+    /** disconnect the client */
+    DISCONNECT
+}
@@ -0,0 +1,77 @@
+package net;
+
+import util.Cards;
+
+/**
+ * @author Brandon
+ * Constants shared by both ends of the binary protocol. Cards and directions go over the wire as small numbers
+ * instead of names, so both sides have to agree on the numbering here. Cards use their ids from util.Cards.
+ */
+public final class Protocol {
+
+    /** first bytes of every stream, so a client from an older build is turned away instead of misread */
+    public static final short MAGIC = (short) 0xC1E5;
+    /** bumped whenever an opcode or its fields change */
+    public static final byte VERSION = 6;
+    /** biggest frame either side will accept */
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    private static final String[] DIRECTIONS = {"UP", "DOWN", "LEFT", "RIGHT"};
+    /** bit for the secret passage in a LEGAL_MOVES mask, the directions use bits 0-3 */
+    public static final int PASSAGE = 4;
+
+    private Protocol() {
+    }
+
+    /**
+     * @param name - name of a suspect, weapon or room
+     * @return - the card's id
+     */
+    public static int cardId(String name) {
+        return Cards.id(name);
+    }
+
+    /**
+     * @param id - id of a card
+     * @return - the card's name
+     */
+    public static String cardName(int id) {
+        return Cards.name(id);
+    }
+
+    /**
+     * @param ids - ids of cards
+     * @return - the cards' names, in the same order
+     */
+    public static String[] cardNames(int[] ids) {
+        String[] names = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            names[i] = cardName(ids[i]);
+        }
+        return names;
+    }
+
+    /**
+     * @param moves - a LEGAL_MOVES mask
+     * @param move - UP, DOWN, LEFT, RIGHT or PASSAGE
+     * @return - true if the mask allows that move
+     */
+    public static boolean allows(int moves, int move) {
+        return (moves & (1 << move)) != 0;
+    }
+
+    /**
+     * @param direction - UP, DOWN, LEFT or RIGHT
+     * @return - name of the direction, the way GameBoard spells it
+     */
+    public static String directionName(int direction) {
+        if (direction < 0 || direction >= DIRECTIONS.length) {
+            throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+        return DIRECTIONS[direction];
+    }
+}
@@ -0,0 +1,178 @@
+package net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @author Brandon
+ * A non-blocking server. One thread waits on a Selector for every client socket at once and only does work when a
+ * socket has bytes to read or room to write, so idle players cost a little memory instead of a whole thread each.
+ *
+ * Every handler callback runs on the loop thread, which also means the handler sees one message at a time.
+ */
+public class SelectorServer {
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ConnectionHandler handler;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>(); // flushed from other threads
+    private final Queue<Connection> pendingCloses = new ConcurrentLinkedQueue<>();
+    private volatile Thread loopThread;
+    private volatile boolean running = true;
+
+    /**
+     * Opens the listening socket
+     * @param port - port to listen on
+     * @param backlog - how many connections can wait to be accepted
+     * @param queueCapacity - most frames that can wait to be sent to one client
+     * @param overflowPolicy - what to do with a client whose queue is full
+     * @param handler - gets the connection events
+     * @throws IOException - if the port can't be opened
+     */
+    public SelectorServer(int port, int backlog, int queueCapacity, OverflowPolicy overflowPolicy,
+                          ConnectionHandler handler) throws IOException {
+        this.handler = handler;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), backlog);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Runs the event loop on the calling thread until stop is called
+     * @throws IOException - if the selector fails
+     */
+    public void run() throws IOException {
+        loopThread = Thread.currentThread();
+        try {
+            while (running) {
+                selector.select();
+                processPending();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable() && !connection.read(handler)) {
+                            close(connection);
+                            continue;
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flushConnection(connection);
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Connection error: " + e.getMessage());
+                        close(connection);
+                    }
+                }
+                processPending();
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    close(connection);
+                }
+            }
+            selector.close();
+            serverChannel.close();
+        }
+    }
+
+    /**
+     * Stops the event loop and closes every connection
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel, this, new OutboundQueue(queueCapacity, overflowPolicy));
+        connection.register(channel.register(selector, SelectionKey.OP_READ, connection));
+        handler.onOpen(connection);
+    }
+
+    /**
+     * Called when a frame has been queued. On the loop thread the bytes are written right away, from any
+     * other thread the loop is woken up to write them.
+     */
+    void requestWrite(Connection connection) {
+        if (Thread.currentThread() == loopThread) {
+            flushConnection(connection);
+        } else {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Closes a connection and tells the handler. Safe to call more than once and from any thread.
+     */
+    void close(Connection connection) {
+        if (Thread.currentThread() != loopThread) {
+            pendingCloses.add(connection);
+            selector.wakeup();
+            return;
+        }
+        if (connection.isClosed()) return;
+
+        connection.markClosed();
+        if (connection.key() != null) {
+            connection.key().cancel();
+        }
+        try {
+            connection.channel().close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        handler.onClose(connection);
+    }
+
+    private void flushConnection(Connection connection) {
+        if (connection.isClosed()) return;
+        try {
+            boolean done = connection.writeQueued();
+            // only ask for OP_WRITE while there is something left, otherwise the selector spins
+            connection.key().interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            System.err.println("Failed to write to client: " + e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void processPending() {
+        Connection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            flushConnection(connection);
+        }
+        while ((connection = pendingCloses.poll()) != null) {
+            close(connection);
+        }
+    }
+}
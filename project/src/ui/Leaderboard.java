@@ -11,16 +11,25 @@ import java.awt.*;
  */
 public class Leaderboard extends JFrame{
 
+    public static final int ROWS = 10;
+
     public Leaderboard(String inputString){
-        GridLayout layout = new GridLayout(10, 1);
-        setLayout(layout);
+        this(0, inputString.split("\n"));
+    }
 
-        String[] strArr = inputString.split("\n");
+    /**
+     * Shows one page of the leaderboard
+     * @param firstRank - rank of the first row, 0 for the best score
+     * @param strArr - the rows, best first
+     */
+    public Leaderboard(int firstRank, String[] strArr){
+        GridLayout layout = new GridLayout(ROWS, 1);
+        setLayout(layout);
 
-        if (!strArr[0].isEmpty()) {
+        if (strArr.length > 0 && !strArr[0].isEmpty()) {
             for(int x = 0; x < strArr.length ; x++){
-                if (x < 10) {
-                    JLabel name = new JLabel(x+1 + ". " + strArr[x]);
+                if (x < ROWS) {
+                    JLabel name = new JLabel(firstRank + x + 1 + ". " + strArr[x]);
                     add(name);
                     name.setHorizontalAlignment(SwingConstants.LEFT);
                 }
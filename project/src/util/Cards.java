@@ -0,0 +1,102 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Brandon
+ * Every Clue-Less card and its id. Suspects are 0-5, weapons 6-11 and rooms 12-20, so a set of cards fits in one
+ * int with bit 1 << id for each card. A hand is one of those masks, and finding which cards of a suggestion a
+ * player holds is a single AND.
+ */
+public final class Cards {
+
+    public static final int COUNT = 21;
+    public static final int FIRST_WEAPON = 6;
+    public static final int FIRST_ROOM = 12;
+
+    public static final int SUSPECTS = range(0, FIRST_WEAPON);
+    public static final int WEAPONS = range(FIRST_WEAPON, FIRST_ROOM);
+    public static final int ROOMS = range(FIRST_ROOM, COUNT);
+    public static final int ALL = range(0, COUNT);
+
+    /** a card's id is its index */
+    private static final String[] NAMES = {
+            "MissScarlet", "ColonelMustard", "MrsWhite", "MrGreen", "MrsPeacock", "ProfessorPlum",
+            "Candlestick", "Knife", "LeadPipe", "Revolver", "Rope", "Wrench",
+            "Study", "Hall", "Lounge", "Library", "Billiard Room", "Dining Room", "Conservatory", "Ballroom", "Kitchen"
+    };
+
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    static {
+        for (int id = 0; id < COUNT; id++) {
+            IDS.put(NAMES[id], id);
+        }
+    }
+
+    private Cards() {
+    }
+
+    /**
+     * @param name - name of a suspect, weapon or room
+     * @return - the card's id
+     */
+    public static int id(String name) {
+        Integer id = IDS.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown card: " + name);
+        }
+        return id;
+    }
+
+    /**
+     * @param id - id of a card
+     * @return - the card's name
+     */
+    public static String name(int id) {
+        if (id < 0 || id >= COUNT) {
+            throw new IllegalArgumentException("Unknown card id: " + id);
+        }
+        return NAMES[id];
+    }
+
+    /**
+     * @param id - id of a card
+     * @return - a mask holding only that card
+     */
+    public static int bit(int id) {
+        return 1 << id;
+    }
+
+    /**
+     * @param cards - a mask of cards
+     * @return - the ids of the cards in it, lowest first
+     */
+    public static int[] ids(int cards) {
+        int[] ids = new int[Integer.bitCount(cards)];
+        for (int i = 0; cards != 0; i++) {
+            ids[i] = Integer.numberOfTrailingZeros(cards);
+            cards &= cards - 1;
+        }
+        return ids;
+    }
+
+    /**
+     * @param cards - a mask of cards
+     * @return - the names of the cards in it, in id order
+     */
+    public static List<String> names(int cards) {
+        List<String> names = new ArrayList<>(Integer.bitCount(cards));
+        for (int id : ids(cards)) {
+            names.add(NAMES[id]);
+        }
+        return names;
+    }
+
+    private static int range(int from, int to) {
+        return (1 << to) - (1 << from);
+    }
+}
@@ -1,12 +0,0 @@
-package util;
-
-/**
- * @author Brandon
- */
-public enum Commands {
-
-    PLAYER_JOINED,
-    PLAYER_LEFT,
-
-    GET_LEADERBOARD,
-}
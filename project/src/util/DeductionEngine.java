@@ -0,0 +1,191 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * @author Brandon
+ * Works out who holds which card from what a player sees during a game. Owners are the six suspects by card id
+ * plus the ENVELOPE, and for each owner it keeps two Cards masks: the cards they certainly hold and the cards
+ * they might hold. Every event narrows those masks and then the rules below run until nothing changes:
+ * - every card has exactly one owner,
+ * - a player who showed a card for a suggestion holds at least one of the suggested cards,
+ * - a player holds as many cards as they were dealt,
+ * - the envelope holds exactly one suspect, one weapon and one room.
+ * All of it is AND, OR and bit counts on ints, so an event takes microseconds.
+ */
+public class DeductionEngine {
+
+    public static final int ENVELOPE = 6;
+    private static final int OWNERS = 7;
+    private static final int[] GROUPS = {Cards.SUSPECTS, Cards.WEAPONS, Cards.ROOMS};
+
+    private final int[] held = new int[OWNERS];
+    private final int[] possible = new int[OWNERS];
+    private final int[] minCards = new int[OWNERS];
+    private final int[] maxCards = new int[OWNERS];
+
+    // suggestions someone showed a card for, as (owner, suggested cards) pairs
+    private int[] clauseOwners = new int[16];
+    private int[] clauseCards = new int[16];
+    private int clauses = 0;
+
+    /**
+     * Starts a notepad for one player
+     * @param players - mask with bit 1 << suspect id for every character in the game
+     * @param me - the character this notepad belongs to
+     * @param hand - Cards mask of the cards I was dealt
+     */
+    public DeductionEngine(int players, int me, int hand) {
+        int count = Integer.bitCount(players);
+        int dealt = Cards.COUNT - 3;
+        for (int owner = 0; owner < ENVELOPE; owner++) {
+            if ((players & (1 << owner)) != 0) {
+                possible[owner] = Cards.ALL;
+                minCards[owner] = dealt / count;
+                maxCards[owner] = (dealt + count - 1) / count;
+            }
+        }
+        possible[ENVELOPE] = Cards.ALL;
+        minCards[ENVELOPE] = 3;
+        maxCards[ENVELOPE] = 3;
+
+        held[me] = hand;
+        possible[me] = hand;
+        minCards[me] = Integer.bitCount(hand);
+        maxCards[me] = minCards[me];
+        propagate();
+    }
+
+    /**
+     * A player said they couldn't disprove a suggestion
+     * @param player - who couldn't
+     * @param suggestion - Cards mask of the suspect, weapon and room
+     */
+    public void cannotDisprove(int player, int suggestion) {
+        possible[player] &= ~suggestion;
+        propagate();
+    }
+
+    /**
+     * A player showed someone else a card for a suggestion, so they hold at least one of the cards
+     * @param player - who showed a card
+     * @param suggestion - Cards mask of the suspect, weapon and room
+     */
+    public void showedCard(int player, int suggestion) {
+        if (clauses == clauseOwners.length) {
+            clauseOwners = Arrays.copyOf(clauseOwners, clauses * 2);
+            clauseCards = Arrays.copyOf(clauseCards, clauses * 2);
+        }
+        clauseOwners[clauses] = player;
+        clauseCards[clauses] = suggestion;
+        clauses++;
+        propagate();
+    }
+
+    /**
+     * A player showed me a card
+     * @param player - who showed it
+     * @param card - id of the card
+     */
+    public void shownCard(int player, int card) {
+        held[player] |= Cards.bit(card);
+        propagate();
+    }
+
+    /**
+     * @param owner - a suspect id or ENVELOPE
+     * @return - Cards mask of the cards they certainly hold
+     */
+    public int getHeld(int owner) {
+        return held[owner];
+    }
+
+    /**
+     * @param owner - a suspect id or ENVELOPE
+     * @return - Cards mask of the cards they might hold, including the ones they certainly do
+     */
+    public int getPossible(int owner) {
+        return possible[owner];
+    }
+
+    /**
+     * @return - Cards mask of the cards that could still be in the envelope
+     */
+    public int solutionCandidates() {
+        return possible[ENVELOPE];
+    }
+
+    /**
+     * @return - the solution as a Cards mask once one suspect, weapon and room are certain, otherwise 0
+     */
+    public int solution() {
+        return Integer.bitCount(held[ENVELOPE]) == 3 ? held[ENVELOPE] : 0;
+    }
+
+    private void propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            // a card held by one owner can't be held by anyone else, a card only one owner might hold is theirs
+            int claimed = 0;
+            int once = 0;
+            int twice = 0;
+            for (int owner = 0; owner < OWNERS; owner++) {
+                claimed |= held[owner];
+                twice |= once & possible[owner];
+                once |= possible[owner];
+            }
+            int onlyOne = once & ~twice;
+            for (int owner = 0; owner < OWNERS; owner++) {
+                int p = possible[owner] & (~claimed | held[owner]);
+                int h = held[owner] | (p & onlyOne);
+                changed |= update(owner, h, p);
+            }
+
+            // a player who showed a card holds one of the suggested cards they might hold
+            for (int i = 0; i < clauses; i++) {
+                int owner = clauseOwners[i];
+                int options = clauseCards[i] & possible[owner];
+                if ((clauseCards[i] & held[owner]) != 0) {
+                    clauseOwners[i] = clauseOwners[--clauses]; // satisfied, forget it
+                    clauseCards[i] = clauseCards[clauses];
+                    i--;
+                } else if (Integer.bitCount(options) == 1) {
+                    changed |= update(owner, held[owner] | options, possible[owner]);
+                }
+            }
+
+            // hand sizes
+            for (int owner = 0; owner < OWNERS; owner++) {
+                if (possible[owner] == 0) continue;
+                if (Integer.bitCount(held[owner]) == maxCards[owner]) {
+                    changed |= update(owner, held[owner], held[owner]);
+                } else if (Integer.bitCount(possible[owner]) == minCards[owner]) {
+                    changed |= update(owner, possible[owner], possible[owner]);
+                }
+            }
+
+            // one card of each kind in the envelope
+            for (int group : GROUPS) {
+                int h = held[ENVELOPE] & group;
+                int p = possible[ENVELOPE] & group;
+                if (h != 0) {
+                    changed |= update(ENVELOPE, held[ENVELOPE], possible[ENVELOPE] & ~(group & ~h));
+                } else if (Integer.bitCount(p) == 1) {
+                    changed |= update(ENVELOPE, held[ENVELOPE] | p, possible[ENVELOPE]);
+                }
+            }
+        }
+    }
+
+    private boolean update(int owner, int newHeld, int newPossible) {
+        newPossible |= newHeld;
+        if (newHeld == held[owner] && newPossible == possible[owner]) {
+            return false;
+        }
+        held[owner] = newHeld;
+        possible[owner] = newPossible;
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * @author Brandon
+ * Build step that turns words_alpha.txt into the binary dictionary read by MappedDictionary.
+ * Run it once whenever the word list changes:
+ *     java -cp bin util.DictionaryCompiler words_alpha.txt words_alpha.bin
+ *
+ * File layout, all numbers are big endian ints:
+ *     MAGIC, VERSION, word count, then one offset per word pointing at its record,
+ *     then the records, each one a length byte followed by the lower case ASCII letters of the word.
+ * The words are sorted so the offsets can be binary searched.
+ */
+public class DictionaryCompiler {
+
+    public static final int MAGIC = 0x434C5744; // "CLWD"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+
+    /**
+     * Writes the words to a binary dictionary file. Duplicates and words that aren't plain ASCII or are longer than
+     * 255 letters are left out. The file is written next to the target and renamed so a running server never maps
+     * half a file.
+     * @param words - list of legal words
+     * @param target - file to write
+     * @throws IOException - if writing the file fails
+     */
+    public static void compile(List<String> words, Path target) throws IOException {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String word : words) {
+            String lower = word.toLowerCase();
+            if (!lower.isEmpty() && lower.length() <= 255 && lower.chars().allMatch(c -> c < 128)) {
+                sorted.add(lower);
+            }
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+
+            int offset = HEADER_SIZE + 4 * sorted.size();
+            for (String word : sorted) {
+                out.writeInt(offset);
+                offset += 1 + word.length();
+            }
+
+            for (String word : sorted) {
+                out.writeByte(word.length());
+                out.writeBytes(word);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "words_alpha.txt");
+        Path target = Paths.get(args.length > 1 ? args[1] : WordFile.DICTIONARY_FILE);
+
+        List<String> words = Files.readAllLines(source);
+        compile(words, target);
+        System.out.println("Compiled " + words.size() + " words from " + source + " into " + target);
+    }
+}
@@ -39,4 +39,15 @@ public class DoesWordExist {
         }
         return false;
     }
+
+    /**
+     * This will test to see if a given word is valid using a dictionary index or the compiled dictionary file,
+     * which works whether the word file is sorted or not
+     * @param words lookup of valid words
+     * @param word word to check if its valid
+     * @return boolean if the word is valid or not
+     */
+    public static boolean execute(WordLookup words, String word) {
+        return words.contains(word);
+    }
 }
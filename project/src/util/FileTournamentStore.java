@@ -0,0 +1,605 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * @author Brandon
+ * A TournamentStore kept in a few files side by side, named after the log:
+ *     tournament.txt - the write-ahead log, one "name score round" line per record, written through a
+ *         GroupCommitWriter. A journal from before snapshots existed is read as a log, so nothing is lost.
+ *     tournament.txt.1, tournament.txt.2 ... - full logs waiting to be folded into the snapshot
+ *     tournament.txt.snapshot - every record up to some segment, in binary
+ * When the log reaches its checkpoint size it is renamed to the next numbered segment and a fresh log is
+ * started, which takes no longer than one batch. A background thread then writes a new snapshot, the old snapshot
+ * followed by the segments, to a temporary file, forces it to disk and renames it over the old one. A crash at any
+ * point leaves the old snapshot or the new one, never half of one. The snapshot remembers the last segment in it,
+ * so a segment still there after a crash is deleted instead of being replayed twice.
+ * Recovery reads the snapshot straight through and parses at most one log's worth of text per pending segment,
+ * so however long the tournament runs it costs about one sequential read of the snapshot.
+ *
+ * Snapshot layout, big endian ints unless marked long:
+ *     MAGIC, VERSION, the last segment folded in (long),
+ *     then the records, 12 bytes each: name number, score, round. A record's sequence is its position,
+ *     then the names, each a length followed by that many bytes of UTF-8, numbered from 0,
+ *     then record count (long), name count, and the CRC32 of everything before it (long).
+ * Every player's name is stored once and the records are fixed size, so a checkpoint copies the old snapshot's
+ * records as they are. A snapshot is streamed through a small buffer, one pass for the checksum and one to decode
+ * it, so only the names are ever held in memory however many records it has.
+ */
+public class FileTournamentStore implements TournamentStore {
+
+    public static final int MAGIC = 0x434C5453; // "CLTS"
+    public static final int VERSION = 1;
+    /** records the log can have before it is checkpointed */
+    public static final long CHECKPOINT_RECORDS = 100_000;
+    /** how long a batch of records waits for more before it is written */
+    private static final long COMMIT_WINDOW_MILLIS = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 12;
+    private static final int TRAILER_SIZE = 20;
+
+    /** bytes read from a snapshot at a time, a whole number of records */
+    private static final int BUFFER_SIZE = (1 << 16) / RECORD_SIZE * RECORD_SIZE;
+
+    /**
+     * A snapshot whose checksum has been verified
+     * @param file - the snapshot, null if there isn't one
+     * @param generation - the last segment folded into it
+     * @param records - how many records it holds
+     * @param names - the names the records point at
+     */
+    private record Snapshot(Path file, long generation, long records, List<String> names) {
+
+        private static final Snapshot EMPTY = new Snapshot(null, 0, 0, List.of());
+
+        /**
+         * @param records - gets every record, oldest first
+         * @throws IOException - if the snapshot can't be read
+         */
+        void replay(Consumer<TournamentScoreboard.PlayerInformation> records) throws IOException {
+            long[] sequence = {0};
+            forEachBlock(block -> {
+                while (block.hasRemaining()) {
+                    String name = names.get(block.getInt());
+                    int score = block.getInt();
+                    int round = block.getInt();
+                    records.accept(new TournamentScoreboard.PlayerInformation(name, score, round, sequence[0]++));
+                }
+            });
+        }
+
+        /**
+         * Hands the records over a block at a time, as they are in the file
+         * @param blocks - gets each block, ready to read
+         * @throws IOException - if the snapshot can't be read
+         */
+        void forEachBlock(Consumer<ByteBuffer> blocks) throws IOException {
+            if (records == 0) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                long end = HEADER_SIZE + records * RECORD_SIZE;
+                for (long position = HEADER_SIZE; position < end; position += buffer.limit()) {
+                    buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                    readFully(channel, buffer, position);
+                    blocks.accept(buffer.flip());
+                }
+            }
+        }
+    }
+
+    private final Path log;
+    private final Path snapshot;
+    private final GroupCommitWriter.Durability durability;
+    private final long checkpointRecords;
+    private final ExecutorService checkpointer; // one thread, so snapshots are written one after another
+    private long snapshotGeneration = 0; // only touched by the checkpointer once recovered
+
+    private final ReentrantLock lock = new ReentrantLock(); // guards everything below
+    private GroupCommitWriter writer; // null until recovered
+    private long generation = 0; // the newest segment
+    private long logRecords = 0; // records in the current log
+    private boolean closed = false;
+
+    /**
+     * A store that checkpoints every CHECKPOINT_RECORDS records
+     * @param log - the log, tournament.txt for the server
+     * @param durability - FSYNC to complete appends once they are on disk, ASYNC to complete them straight away
+     */
+    public FileTournamentStore(Path log, GroupCommitWriter.Durability durability) {
+        this(log, durability, CHECKPOINT_RECORDS);
+    }
+
+    /**
+     * @param log - the log, tournament.txt for the server
+     * @param durability - FSYNC to complete appends once they are on disk, ASYNC to complete them straight away
+     * @param checkpointRecords - records the log can have before it is checkpointed
+     */
+    public FileTournamentStore(Path log, GroupCommitWriter.Durability durability, long checkpointRecords) {
+        this.log = log.toAbsolutePath();
+        this.snapshot = sibling(".snapshot");
+        this.durability = durability;
+        this.checkpointRecords = checkpointRecords;
+        this.checkpointer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "checkpoint " + log.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private Path sibling(String suffix) {
+        return log.resolveSibling(log.getFileName() + suffix);
+    }
+
+    /**
+     * @param generation - number of a segment
+     * @return - its file
+     */
+    Path segment(long generation) {
+        return sibling("." + generation);
+    }
+
+    /**
+     * @return - where the next snapshot is written before it is renamed
+     */
+    Path temporarySnapshot() {
+        return sibling(".snapshot.tmp");
+    }
+
+    @Override
+    public void recover(Consumer<TournamentScoreboard.PlayerInformation> records) throws IOException {
+        lock.lock();
+        try {
+            if (writer != null || closed) {
+                throw new IllegalStateException("The store has already been recovered");
+            }
+            Files.deleteIfExists(temporarySnapshot()); // a checkpoint that was cut short
+
+            Snapshot saved = readSnapshot(snapshot);
+            saved.replay(records);
+            snapshotGeneration = saved.generation();
+            generation = saved.generation();
+            long sequence = saved.records();
+            for (long number : segments()) {
+                if (number <= saved.generation()) {
+                    Files.delete(segment(number)); // a crash came between writing the snapshot and deleting it
+                } else {
+                    sequence += readLog(segment(number), sequence, records);
+                    generation = number;
+                }
+            }
+
+            if (Files.exists(log)) {
+                truncateTornLine(log);
+                logRecords = readLog(log, sequence, records);
+            }
+            writer = new GroupCommitWriter(log, durability, COMMIT_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            if (generation > saved.generation()) {
+                scheduleCheckpoint(generation); // segments a crash left behind
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> append(TournamentScoreboard.PlayerInformation record) {
+        CompletableFuture<Void> written;
+        lock.lock();
+        try {
+            if (writer == null && !closed) {
+                throw new IllegalStateException("Recover the store before appending to it");
+            }
+            if (closed) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Store is closed")));
+            }
+            written = writer.append(record.name() + " " + record.score() + " " + record.round());
+            if (++logRecords >= checkpointRecords) {
+                try {
+                    scheduleCheckpoint(rotate());
+                } catch (IOException e) {
+                    System.err.println("Could not start a tournament checkpoint: " + e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (durability == GroupCommitWriter.Durability.FSYNC) {
+            return written;
+        }
+        written.exceptionally(e -> {
+            System.err.println("Lost a tournament record: " + e.getMessage());
+            return null;
+        });
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void checkpoint() throws IOException {
+        Future<?> done;
+        lock.lock();
+        try {
+            if (writer == null || closed) {
+                throw new IllegalStateException("The store isn't open");
+            }
+            long upTo = rotate();
+            done = checkpointer.submit(() -> {
+                compact(upTo);
+                return null;
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a checkpoint");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Checkpoint failed", e.getCause());
+        }
+    }
+
+    /**
+     * Renames the log to the next segment and starts a new one. Must hold the lock
+     * @return - the newest segment
+     * @throws IOException - if the log can't be renamed, it is then kept on as the log
+     */
+    private long rotate() throws IOException {
+        if (logRecords == 0) {
+            return generation;
+        }
+        writer.close(); // everything appended so far is in the file
+        try {
+            Files.move(log, segment(generation + 1), StandardCopyOption.ATOMIC_MOVE);
+            generation++;
+            logRecords = 0;
+            syncDirectory();
+        } finally {
+            writer = new GroupCommitWriter(log, durability, COMMIT_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return generation;
+    }
+
+    private void scheduleCheckpoint(long upTo) {
+        checkpointer.execute(() -> {
+            try {
+                compact(upTo);
+            } catch (IOException e) {
+                System.err.println("Tournament checkpoint failed, its segments are kept: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes a new snapshot holding the current one and every segment up to upTo, then deletes those segments.
+     * Only runs on the checkpointer
+     * @param upTo - the last segment to fold in
+     * @throws IOException - if the snapshot can't be written, the old one and the segments are then untouched
+     */
+    private void compact(long upTo) throws IOException {
+        if (upTo <= snapshotGeneration) {
+            return; // nothing new
+        }
+        Snapshot old = readSnapshot(snapshot);
+        // the old names keep their numbers, so the old records are copied as they are
+        List<String> names = new ArrayList<>(old.names());
+        Map<String, Integer> numbers = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            numbers.put(names.get(i), i);
+        }
+
+        Path temporary = temporarySnapshot();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer out = ByteBuffer.allocate(1 << 16);
+            out.putInt(MAGIC).putInt(VERSION).putLong(upTo);
+            write(channel, crc, out.flip());
+            try {
+                old.forEachBlock(block -> {
+                    try {
+                        write(channel, crc, block);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            long[] count = {old.records()};
+            out.clear();
+            Consumer<TournamentScoreboard.PlayerInformation> append = record -> {
+                try {
+                    if (out.remaining() < RECORD_SIZE) {
+                        write(channel, crc, out.flip());
+                        out.clear();
+                    }
+                    int number = numbers.computeIfAbsent(record.name(), name -> {
+                        names.add(name);
+                        return names.size() - 1;
+                    });
+                    out.putInt(number).putInt(record.score()).putInt(record.round());
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                for (long number = snapshotGeneration + 1; number <= upTo; number++) {
+                    if (Files.exists(segment(number))) {
+                        readLog(segment(number), count[0], append);
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            write(channel, crc, out.flip());
+
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer entry = ByteBuffer.allocate(4 + bytes.length);
+                write(channel, crc, entry.putInt(bytes.length).put(bytes).flip());
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).putLong(count[0]).putInt(names.size());
+            crc.update(trailer.array(), 0, 12);
+            trailer.putLong(crc.getValue());
+            write(channel, null, trailer.flip());
+            channel.force(true);
+        }
+
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        for (long number = snapshotGeneration + 1; number <= upTo; number++) {
+            Files.deleteIfExists(segment(number));
+        }
+        snapshotGeneration = upTo;
+    }
+
+    /**
+     * @param channel - file to write to
+     * @param crc - checksum to add the bytes to, or null
+     * @param bytes - the bytes
+     * @throws IOException - if writing fails
+     */
+    private static void write(FileChannel channel, CRC32 crc, ByteBuffer bytes) throws IOException {
+        if (crc != null) {
+            crc.update(bytes.duplicate());
+        }
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Checks a snapshot and reads its names, leaving the records on disk
+     * @param file - a snapshot
+     * @return - the snapshot, or an empty one if there is no such file
+     * @throws IOException - if it can't be read, isn't a snapshot or fails its checksum
+     */
+    private static Snapshot readSnapshot(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Snapshot.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (size >= HEADER_SIZE + TRAILER_SIZE) {
+                readFully(channel, header, 0);
+            }
+            if (size < HEADER_SIZE + TRAILER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a tournament snapshot: " + file);
+            }
+
+            // everything but the checksum itself, a buffer at a time
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (long position = 0; position < size - 8; position += buffer.limit()) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, size - 8 - position));
+                readFully(channel, buffer, position);
+                crc.update(buffer.flip());
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            readFully(channel, trailer, size - TRAILER_SIZE);
+            long records = trailer.getLong(0);
+            int nameCount = trailer.getInt(8);
+            if (crc.getValue() != trailer.getLong(12) || records < 0 || nameCount < 0
+                    || records > (size - HEADER_SIZE - TRAILER_SIZE) / RECORD_SIZE) {
+                throw new IOException("Tournament snapshot is corrupt: " + file);
+            }
+
+            List<String> names = new ArrayList<>(nameCount);
+            long position = HEADER_SIZE + records * RECORD_SIZE;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            for (int i = 0; i < nameCount; i++) {
+                readFully(channel, length.clear(), position);
+                ByteBuffer name = ByteBuffer.allocate(length.getInt(0));
+                readFully(channel, name, position + 4);
+                names.add(new String(name.array(), StandardCharsets.UTF_8));
+                position += 4 + name.capacity();
+            }
+            return new Snapshot(file, header.getLong(8), records, names);
+        }
+    }
+
+    /**
+     * Fills a buffer from a file
+     * @param channel - the file
+     * @param buffer - the buffer, filled up to its limit
+     * @param position - where in the file to start
+     * @throws IOException - if reading fails or the file ends first
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Tournament snapshot ends too soon");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * @param file - a log or segment
+     * @param firstSequence - sequence of its first record
+     * @param records - gets every record in it, in order
+     * @return - how many records it has
+     * @throws IOException - if it can't be read
+     */
+    private static long readLog(Path file, long firstSequence, Consumer<TournamentScoreboard.PlayerInformation> records)
+            throws IOException {
+        long count = 0;
+        // an InputStreamReader rather than Files.newBufferedReader, a torn line can end half way through a character
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                TournamentScoreboard.PlayerInformation record = parse(line, firstSequence + count);
+                if (record != null) {
+                    records.accept(record);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param line - a log line, "name score round"
+     * @param sequence - where the line is in the history
+     * @return - the record, or null if the line is blank or cut short. The name can be empty, " 12 3"
+     */
+    private static TournamentScoreboard.PlayerInformation parse(String line, long sequence) {
+        int roundStart = line.lastIndexOf(' ');
+        int scoreStart = roundStart > 0 ? line.lastIndexOf(' ', roundStart - 1) : -1;
+        if (scoreStart < 0) {
+            return null;
+        }
+        try {
+            int score = Integer.parseInt(line.substring(scoreStart + 1, roundStart));
+            int round = Integer.parseInt(line.substring(roundStart + 1));
+            return new TournamentScoreboard.PlayerInformation(line.substring(0, scoreStart), score, round, sequence);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cuts off a last line that a crash left unfinished. It was never acknowledged, and what is left of it could
+     * still parse as a score nobody submitted, "alice 120 14" cut to "alice 120 1"
+     * @param file - a log
+     * @throws IOException - if it can't be read or truncated
+     */
+    private static void truncateTornLine(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long keep = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            search:
+            for (long end = size; end > 0; end -= buffer.limit()) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                readFully(channel, buffer, start);
+                for (int i = buffer.limit() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        keep = start + i + 1;
+                        break search;
+                    }
+                }
+            }
+            if (keep < size) {
+                channel.truncate(keep);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * @return - numbers of the segments on disk, oldest first
+     * @throws IOException - if the directory can't be listed
+     */
+    private List<Long> segments() throws IOException {
+        String prefix = log.getFileName() + ".";
+        try (Stream<Path> files = Files.list(log.getParent())) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .map(name -> name.substring(prefix.length()))
+                    .filter(number -> !number.isEmpty() && number.length() < 19
+                            && number.chars().allMatch(c -> c >= '0' && c <= '9'))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Makes a rename survive a crash. Not every platform can open a directory, where it can't the rename is as
+     * durable as the operating system makes it
+     */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(log.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // nothing more can be done
+        }
+    }
+
+    /**
+     * Writes whatever is still queued, lets a running checkpoint finish and closes the log
+     * @throws IOException - if closing the log fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            checkpointer.shutdown();
+            if (writer != null) {
+                writer.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Brandon
+ * Appends lines to a file in batches. Lines that arrive within a short window of each other go out as one write,
+ * and with FSYNC one force to disk, done by a single writer thread. When a whole room of players finishes a round
+ * at once, that is one sequential append instead of one write and flush per player.
+ * Every append gets a future that completes once its batch is written, and forced to disk with FSYNC.
+ */
+public class GroupCommitWriter implements Closeable {
+
+    /**
+     * How sure a completed append is to survive a crash
+     */
+    public enum Durability {
+        /** every batch is forced to disk before its appends complete, so a completed append survives power loss */
+        FSYNC,
+        /** batches are written but left to the operating system to put on disk, a crash can lose the last few */
+        ASYNC
+    }
+
+    /** a batch this big is written without waiting out the rest of the window */
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Durability durability;
+    private final long windowNanos;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock(); // guards everything below
+    private final Condition waiting = lock.newCondition();
+    private byte[] batch = new byte[4096];
+    private int batchSize = 0;
+    private CompletableFuture<Void> batchWritten = new CompletableFuture<>();
+    private boolean closed = false;
+    private IOException failure = null; // a batch failed and couldn't be taken back off the end of the file
+
+    /**
+     * Opens a file for appending, creating it if it doesn't exist, and starts its writer thread
+     * @param file - the file
+     * @param durability - whether each batch is forced to disk
+     * @param window - how long the writer waits for more lines after the first one of a batch arrives
+     * @param unit - unit of window
+     * @throws IOException - if the file can't be opened
+     */
+    public GroupCommitWriter(Path file, Durability durability, long window, TimeUnit unit) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.durability = durability;
+        this.windowNanos = unit.toNanos(window);
+        this.writer = new Thread(this::run, "group-commit " + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a line to be appended. Lines are written in the order append was called
+     * @param line - the line, without its line break
+     * @return - completes when the batch the line is in has been written, or fails with an UncheckedIOException
+     */
+    public CompletableFuture<Void> append(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Writer is closed")));
+            }
+            if (failure != null) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(failure));
+            }
+            if (batchSize + bytes.length > batch.length) {
+                batch = Arrays.copyOf(batch, Math.max(batch.length * 2, batchSize + bytes.length));
+            }
+            System.arraycopy(bytes, 0, batch, batchSize, bytes.length);
+            batchSize += bytes.length;
+            waiting.signal();
+            return batchWritten;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for an append
+     * @param written - the append
+     * @throws IOException - if it couldn't be written
+     */
+    static void await(CompletableFuture<Void> written) throws IOException {
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        while (true) {
+            byte[] bytes;
+            int size;
+            CompletableFuture<Void> written;
+            IOException failed;
+            lock.lock();
+            try {
+                while (batchSize == 0 && !closed) {
+                    waiting.awaitUninterruptibly();
+                }
+                if (batchSize == 0) {
+                    return; // closed and nothing left to write
+                }
+                // give everyone finishing at the same moment the chance to get into this batch
+                long deadline = System.nanoTime() + windowNanos;
+                long left;
+                while (batchSize < MAX_BATCH_BYTES && !closed && (left = deadline - System.nanoTime()) > 0) {
+                    try {
+                        waiting.awaitNanos(left);
+                    } catch (InterruptedException e) {
+                        break; // the window was cut short, write what there is
+                    }
+                }
+                bytes = batch;
+                size = batchSize;
+                written = batchWritten;
+                batch = new byte[Math.min(Math.max(4096, size), MAX_BATCH_BYTES)];
+                batchSize = 0;
+                batchWritten = new CompletableFuture<>();
+                failed = failure;
+            } finally {
+                lock.unlock();
+            }
+
+            if (failed != null) {
+                written.completeExceptionally(new UncheckedIOException(failed));
+                continue;
+            }
+            long start = -1;
+            try {
+                start = channel.size();
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (durability == Durability.FSYNC) {
+                    channel.force(false);
+                }
+                written.complete(null);
+            } catch (IOException e) {
+                written.completeExceptionally(new UncheckedIOException(e));
+                undo(start, e);
+            }
+        }
+    }
+
+    /**
+     * Takes a batch that failed partway back off the end of the file, so the next batch doesn't land after half a
+     * line. If even that fails the writer gives up, and every later append fails instead of writing after the
+     * broken bytes
+     * @param start - the size of the file before the batch, -1 if that couldn't be read
+     * @param cause - why the batch failed
+     */
+    private void undo(long start, IOException cause) {
+        if (start >= 0) {
+            try {
+                channel.truncate(start);
+                if (durability == Durability.FSYNC) {
+                    channel.force(false);
+                }
+                return;
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        lock.lock();
+        try {
+            failure = cause;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes whatever is still queued, stops the writer thread and closes the file
+     * @throws IOException - if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            waiting.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
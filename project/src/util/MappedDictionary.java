@@ -0,0 +1,91 @@
+package util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Brandon
+ * Reads the binary dictionary made by DictionaryCompiler straight out of a memory mapped file. Nothing is copied
+ * onto the heap, a lookup binary searches the sorted offsets and compares bytes in place, so opening it is
+ * instant and several servers on the same machine share the same pages.
+ */
+public class MappedDictionary implements WordLookup {
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private MappedDictionary(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+    }
+
+    /**
+     * Maps a compiled dictionary file
+     * @param file - file written by DictionaryCompiler
+     * @return - the mapped dictionary
+     * @throws IOException - if the file can't be read or isn't a compiled dictionary
+     */
+    public static MappedDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < DictionaryCompiler.HEADER_SIZE
+                    || buffer.getInt(0) != DictionaryCompiler.MAGIC
+                    || buffer.getInt(4) != DictionaryCompiler.VERSION) {
+                throw new IOException("Not a compiled dictionary: " + file);
+            }
+            return new MappedDictionary(buffer);
+        }
+    }
+
+    /**
+     * This is the same binary search as DoesWordExist, only done on the raw bytes of the file
+     * @param word - word to look up
+     * @return true if the word is legal
+     */
+    @Override
+    public boolean contains(CharSequence word) {
+        int lowerBound = 0;
+        int upperBound = size - 1;
+
+        while (lowerBound <= upperBound) {
+            int middle = lowerBound + (upperBound - lowerBound) / 2;
+            int comparison = compare(word, buffer.getInt(DictionaryCompiler.HEADER_SIZE + 4 * middle));
+
+            if (comparison == 0) {
+                return true;
+            }
+
+            if (comparison > 0) {
+                lowerBound = middle + 1;
+            } else {
+                upperBound = middle - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return - number of words in the file
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * compares the word with the record at the given offset the same way String.compareTo would
+     */
+    private int compare(CharSequence word, int offset) {
+        int length = buffer.get(offset) & 0xFF;
+        int shared = Math.min(length, word.length());
+        for (int i = 0; i < shared; i++) {
+            int difference = Character.toLowerCase(word.charAt(i)) - (buffer.get(offset + 1 + i) & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return word.length() - length;
+    }
+}
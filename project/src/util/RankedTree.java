@@ -0,0 +1,226 @@
+package util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * @author Brandon
+ * A sorted collection that can also be read by position. It is a treap, a binary search tree where every node
+ * also has a random priority kept in heap order, which keeps it balanced on average without any rebalancing
+ * rules. Every node knows the size of its subtree, so finding the item at a rank, or the rank of an item, is one
+ * walk down the tree, O(log n), and reading a page of items costs the walk plus the page.
+ * Not thread safe, the owner has to lock around it.
+ * @param <T> - the items, equal items are kept side by side
+ */
+public class RankedTree<T> {
+
+    private static final class Node<T> {
+        final T item;
+        final int priority;
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(T item, int priority) {
+            this.item = item;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private Node<T> root;
+    private int seed = 0x9E3779B9; // xorshift state for the priorities
+
+    /**
+     * @param order - the order items are ranked in, rank 0 first
+     */
+    public RankedTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    /**
+     * Builds a tree from items that are already in order in O(n), quicker than adding them one at a time
+     * @param order - the order items are ranked in, rank 0 first
+     * @param sorted - the items, in that order
+     * @throws IllegalArgumentException - if they aren't in order
+     */
+    public RankedTree(Comparator<? super T> order, List<? extends T> sorted) {
+        this(order);
+        // every new item is the last in order, so it goes on the right hand edge of the tree, above the nodes
+        // there with lower priorities, which become its left subtree
+        Deque<Node<T>> edge = new ArrayDeque<>();
+        for (T item : sorted) {
+            if (!edge.isEmpty() && order.compare(item, edge.peek().item) < 0) {
+                throw new IllegalArgumentException("Items are not in order");
+            }
+            Node<T> node = new Node<>(item, nextPriority());
+            Node<T> below = null;
+            while (!edge.isEmpty() && edge.peek().priority < node.priority) {
+                below = finish(edge.pop());
+            }
+            node.left = below;
+            if (!edge.isEmpty()) {
+                edge.peek().right = node;
+            }
+            edge.push(node);
+        }
+        while (!edge.isEmpty()) {
+            root = finish(edge.pop());
+        }
+    }
+
+    /**
+     * @param node - a node whose subtrees are complete
+     * @return - the node, with its size set
+     */
+    private static <T> Node<T> finish(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    /**
+     * @return - how many items there are
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Adds an item in O(log n) on average
+     * @param item - the item
+     */
+    public void add(T item) {
+        root = insert(root, new Node<>(item, nextPriority()));
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        node.size++;
+        if (order.compare(added.item, node.item) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        left.size = node.size;
+        node.size = 1 + size(node.left) + size(node.right);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        right.size = node.size;
+        node.size = 1 + size(node.left) + size(node.right);
+        return right;
+    }
+
+    /**
+     * @param rank - 0 for the first item
+     * @return - the item at that rank
+     * @throws IndexOutOfBoundsException - if there is no such rank
+     */
+    public T get(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException("rank " + rank + " of " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank == leftSize) {
+                return node.item;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @param item - an item, it doesn't have to be in the tree
+     * @return - how many items come before it, which is its rank if it is in the tree
+     */
+    public int rankOf(T item) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (order.compare(item, node.item) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @param from - rank of the first item
+     * @param count - most items to return
+     * @return - the items from that rank on, in order, fewer than count at the end of the tree
+     */
+    public List<T> range(int from, int count) {
+        List<T> items = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        if (from < 0 || count <= 0) {
+            return items;
+        }
+
+        // walk down to the first item, remembering the nodes still to come after it
+        Deque<Node<T>> after = new ArrayDeque<>();
+        Node<T> node = root;
+        int rank = from;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (rank <= leftSize) {
+                after.push(node);
+                if (rank == leftSize) {
+                    break;
+                }
+                node = node.left;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+
+        while (items.size() < count && !after.isEmpty()) {
+            node = after.pop();
+            items.add(node.item);
+            for (Node<T> next = node.right; next != null; next = next.left) {
+                after.push(next);
+            }
+        }
+        return items;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
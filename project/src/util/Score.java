@@ -1,6 +1,6 @@
 package util;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * @author Brandon
@@ -8,44 +8,91 @@ import java.util.ArrayList;
  */
 public class Score {
 
-    private static final ArrayList<String> words = WordFile.readWordFile();
+    private static final WordLookup words = WordFile.loadDictionary();
+
+    /**
+     * How many points each letter A-Z is worth:
+     * E A = 1, R I O = 2, T N = 3, S L C = 5, U D P M H = 7, G B = 8, F Y W K V = 9, X Z J Q = 11
+     */
+    private static final int[] LETTER_POINTS = {
+            1, 8, 5, 7, 1, 9, 8, 7, 2, 11, 9, 5, 7, // A - M
+            3, 2, 7, 11, 2, 5, 3, 7, 9, 9, 11, 9, 11 // N - Z
+    };
+
+    // scratch histogram for each thread so scoring a single word doesn't allocate
+    private static final ThreadLocal<int[]> rackCounts = ThreadLocal.withInitial(() -> new int[26]);
 
     /**
      * calculates how many points a word is worth. A correct word will earn one point. There is a penalty for entering
      * a single letter. If the word is not found or if it not actually a word 0 will be returned.
-     * Scoring is based off of the pointsPerLetter function
+     * Scoring is based off of the LETTER_POINTS table
      * @param word - word to be scored
      * @param letters - legal given letters.txt
      * @return - score of the word
      */
     public static int calculate(String word, char[] letters) {
-        word = word.toUpperCase();
-
         // if you enter a single character you lose a point no matter what :)
         if (word.length() == 1) {
             return -1;
         }
 
-        if (!words.contains(word.toLowerCase())) {
-            System.out.println("Not a word");
-            return 0; //if it is not a valid word
-        }
+        int[] counts = rackCounts.get();
+        countLetters(letters, counts);
+        return scoreWord(word, counts, letters.length);
+    }
+
+    /**
+     * Scores a whole list of words against the same letters, for grading everything a player entered at the end of
+     * a round. The letters are only counted once for the whole list.
+     * @param words - words to be scored
+     * @param rack - legal given letters
+     * @return - score of each word, in the same order as the words
+     */
+    public static int[] calculateAll(String[] words, char[] rack) {
+        int[] scores = new int[words.length];
+        int[] counts = new int[26];
+        int[] remaining = new int[26];
+        countLetters(rack, counts);
 
-        if (!onlyValidLetters(word.split(""), letters)) {
-            return 0;
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].length() == 1) {
+                scores[i] = -1;
+            } else {
+                System.arraycopy(counts, 0, remaining, 0, 26);
+                scores[i] = scoreWord(words[i], remaining, rack.length);
+            }
         }
+        return scores;
+    }
 
+    /**
+     * Scores a word in one pass, taking each of its letters out of the rack's letter counts. If the rack runs out of
+     * a letter the word can't be made and is worth nothing. The counts are used up by this.
+     * @param word - word to be scored
+     * @param counts - how many of each letter A-Z the rack has
+     * @param rackLength - number of letters in the rack, using all of them doubles the points
+     * @return - score of the word
+     */
+    private static int scoreWord(String word, int[] counts, int rackLength) {
         // a correct word will default to at least one point
         int score = 1;
 
-        // each letter will have a specified amount of points
-        String[] letter = word.split("");
-        for (String l : letter) {
-            score += pointsPerLetter(l);
+        for (int i = 0; i < word.length(); i++) {
+            int letter = letterIndex(word.charAt(i));
+            if (letter < 0 || counts[letter] == 0) {
+                return 0; // if at any point there is an illegal letter it's worth nothing
+            }
+            counts[letter]--;
+            score += LETTER_POINTS[letter];
+        }
+
+        if (!words.contains(word)) {
+            System.out.println("Not a word");
+            return 0; //if it is not a valid word
         }
 
         // if the length of the word is equal to the amount of letters.txt, double the points
-        if (word.length() == letters.length) {
+        if (word.length() == rackLength) {
             score = 2*score;
         }
 
@@ -53,44 +100,24 @@ public class Score {
     }
 
     /**
-     * this checks if the input word uses valid letters.txt given by the game
-     * @param word - given word turned into a string
-     * @param letters - legal letters.txt that can be used in the word
-     * @return - true or false on legality of word
+     * counts how many times each letter A-Z shows up in the rack
      */
-    private static boolean onlyValidLetters(String[] word, char[] letters) {
-        char[] lettersCopy = letters.clone();
-        for (String s : word) {
-            boolean hasLetter = false;
-            for (int i = 0; i< lettersCopy.length; i++) {
-                if (s.equals(String.valueOf(lettersCopy[i]))) {
-                    lettersCopy[i] = '-';
-                    hasLetter = true;
-                    break;
-                }
+    private static void countLetters(char[] letters, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (char c : letters) {
+            int letter = letterIndex(c);
+            if (letter >= 0) {
+                counts[letter]++;
             }
-            if (!hasLetter) return false; // if at any point there is an illegal letter its false
         }
-
-        return true; //if all letters.txt pass true is returned
     }
 
     /**
-     * This is a method that uses a switch statement to determine how many points each letter is worth
-     * @param letter - input letter to score
-     * @return - score of that letter
+     * @return - 0 for A up to 25 for Z in either case, -1 for anything that isn't a letter
      */
-    private static int pointsPerLetter(String letter) {
-        return switch (letter) {
-            case "E", "A" -> 1;
-            case "R", "I", "O" -> 2;
-            case "T", "N" -> 3;
-            case "S", "L", "C" -> 5;
-            case "U", "D", "P", "M", "H" -> 7;
-            case "G", "B" -> 8;
-            case "F", "Y", "W", "K", "V" -> 9;
-            case "X", "Z", "J", "Q" -> 11;
-            default -> 0;
-        };
+    private static int letterIndex(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        return -1;
     }
 }
@@ -0,0 +1,131 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Brandon
+ * Finds every legal word that can be made from a scramble. Words are grouped by their signature, which is the
+ * word's letters in sorted order, so all anagrams share one entry. Solving a scramble only looks up the
+ * signatures of the scramble's own letter combinations instead of going through the whole dictionary.
+ */
+public class ScrambleSolver {
+
+    private final Map<String, String[]> anagrams = new HashMap<>(); // signature -> words with those letters
+    private final int maxLength;
+
+    /**
+     * A word that can be made from a scramble and how many points it is worth
+     */
+    public static class ScoredWord {
+        private final String word;
+        private final int score;
+
+        public ScoredWord(String word, int score) {
+            this.word = word;
+            this.score = score;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Builds the signature index. Words longer than the longest scramble can never be made so they are skipped,
+     * as are single letters since those lose a point.
+     * @param words - list of legal words
+     * @param maxLength - length of the longest scramble that will be solved
+     */
+    public ScrambleSolver(List<String> words, int maxLength) {
+        this.maxLength = maxLength;
+
+        Map<String, List<String>> groups = new HashMap<>();
+        for (String word : words) {
+            if (word.length() < 2 || word.length() > maxLength) {
+                continue;
+            }
+            String lower = word.toLowerCase();
+            groups.computeIfAbsent(signature(lower), key -> new ArrayList<>(1)).add(lower);
+        }
+
+        for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+            anagrams.put(group.getKey(), group.getValue().toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Finds every word that can be made from the scramble along with its score
+     * @param scramble - letters of the scramble
+     * @return - every word that can be made, highest score first
+     */
+    public List<ScoredWord> solve(String scramble) {
+        if (scramble.length() > maxLength) {
+            throw new IllegalArgumentException("Scramble is longer than " + maxLength + " letters: " + scramble);
+        }
+
+        char[] rack = scramble.toUpperCase().toCharArray();
+        char[] letters = scramble.toLowerCase().toCharArray();
+        Arrays.sort(letters);
+
+        List<ScoredWord> found = new ArrayList<>();
+        collect(letters, 0, new char[letters.length], 0, rack, found);
+        found.sort((one, two) -> two.score - one.score);
+        return found;
+    }
+
+    /**
+     * The most points a player can get out of a scramble, which is every word it can make added together
+     * @param scramble - letters of the scramble
+     * @return - par score for the scramble
+     */
+    public int parScore(String scramble) {
+        int par = 0;
+        for (ScoredWord word : solve(scramble)) {
+            par += word.score;
+        }
+        return par;
+    }
+
+    /**
+     * Goes through every combination of the sorted letters. Each distinct letter is used anywhere from zero times
+     * up to as many times as it shows up, so combinations with repeated letters are only visited once.
+     */
+    private void collect(char[] letters, int index, char[] picked, int pickedCount, char[] rack, List<ScoredWord> found) {
+        if (index == letters.length) {
+            if (pickedCount >= 2) {
+                String[] words = anagrams.get(new String(picked, 0, pickedCount));
+                if (words != null) {
+                    for (String word : words) {
+                        found.add(new ScoredWord(word, Score.calculate(word, rack)));
+                    }
+                }
+            }
+            return;
+        }
+
+        int next = index;
+        while (next < letters.length && letters[next] == letters[index]) {
+            next++;
+        }
+
+        collect(letters, next, picked, pickedCount, rack, found);
+        for (int used = 1; used <= next - index; used++) {
+            picked[pickedCount + used - 1] = letters[index];
+            collect(letters, next, picked, pickedCount + used, rack, found);
+        }
+    }
+
+    private static String signature(String word) {
+        char[] letters = word.toCharArray();
+        Arrays.sort(letters);
+        return new String(letters);
+    }
+}
@@ -0,0 +1,75 @@
+package util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Brandon
+ * Runs tasks one at a time, in the order they were handed in, on threads borrowed from a shared pool. Anything
+ * only touched by these tasks is only ever touched by one thread at a time, so it needs no locks, while many
+ * SerialExecutors sharing a pool still run side by side on different cores.
+ *
+ * Any thread can hand in a task. Tasks wait in a lock-free queue, and at most one drain of that queue is
+ * scheduled on the pool at a time.
+ */
+public class SerialExecutor implements Executor {
+
+    /** tasks run before the pool thread is handed back, so one busy executor can't starve the others */
+    private static final int BATCH = 64;
+
+    private final Executor pool;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * @param pool - threads to run tasks on
+     */
+    public SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queues a task to run after every task handed in before it. Never waits.
+     * @param task - task to run
+     */
+    @Override
+    public void execute(Runnable task) {
+        mailbox.offer(task);
+        schedule();
+    }
+
+    /**
+     * @return - number of tasks waiting to run
+     */
+    public int pending() {
+        return mailbox.size();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            for (int i = 0; i < BATCH && (task = mailbox.poll()) != null; i++) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Task failed: " + e);
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // a task may have been queued after the last poll but before scheduled was cleared
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * @author Brandon
+ * Keeps the best k items of everything offered to it. The items are in a min-heap with the worst of the best k on
+ * top, so an offer is one comparison against the top when the item doesn't make it, and O(log k) when it does.
+ * The best-first list is only sorted again after the best k have changed.
+ * Not thread safe, the owner has to lock around it.
+ * @param <T> - the items
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> bestFirst;
+    private final PriorityQueue<T> heap;
+    private List<T> ranked = List.of(); // the best k sorted best first, null once the heap has changed
+
+    /**
+     * @param k - how many items to keep
+     * @param bestFirst - orders better items before worse ones
+     */
+    public TopK(int k, Comparator<? super T> bestFirst) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1, not " + k);
+        }
+        this.k = k;
+        this.bestFirst = bestFirst;
+        this.heap = new PriorityQueue<>(k + 1, bestFirst.reversed());
+    }
+
+    /**
+     * @param item - the item
+     * @return - true if it made the best k, which changes the ranking
+     */
+    public boolean offer(T item) {
+        if (heap.size() == k) {
+            if (bestFirst.compare(item, heap.peek()) >= 0) {
+                return false; // no better than the worst we keep
+            }
+            heap.poll();
+        }
+        heap.add(item);
+        ranked = null;
+        return true;
+    }
+
+    /**
+     * @return - the best k items, best first, unmodifiable
+     */
+    public List<T> ranked() {
+        if (ranked == null) {
+            List<T> sorted = new ArrayList<>(heap);
+            sorted.sort(bestFirst);
+            ranked = Collections.unmodifiableList(sorted);
+        }
+        return ranked;
+    }
+
+    /**
+     * @return - how many items are kept, at most k
+     */
+    public int size() {
+        return heap.size();
+    }
+}
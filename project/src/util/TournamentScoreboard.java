@@ -1,94 +1,295 @@
 package util;
 
-import java.io.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
-
-// The main bulk of this file and algorithms came from:
-// https://javaconceptoftheday.com/how-to-sort-a-text-file-in-java/#:~:text=How%20To%20Sort%20A%20Text%20File%20Having%20Single,lines%20using%20Collections.sort%20%28%29%20method.%20...%20More%20items
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This class is used to create information to be displayed on the leaderboard
+ * The scores are kept in a TournamentStore, a FileTournamentStore for the server, that is only ever appended to.
+ * Every score is also in a RankedTree sorted best first, built from the store when the scoreboard is opened, so a
+ * submission is one append and reading the leaderboard never touches the disk.
+ * The tree knows the rank of every score, so a page of the leaderboard, the rows around a player, or a player's
+ * rank are all O(log n) plus the rows returned, however long the history is.
+ * The classic leaderboard only shows the best LEADERBOARD_SIZE scores. Those are kept in a TopK as well, and the
+ * leaderboard text is only built again when a submission makes it into them.
  */
-public class TournamentScoreboard {
+public class TournamentScoreboard implements Closeable {
+
+    /** rows shown on the leaderboard */
+    public static final int LEADERBOARD_SIZE = 10;
+    /** most rows one page can have */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * best score first, and the newest first among equal scores
+     */
+    private static final Comparator<PlayerInformation> BEST_FIRST =
+            Comparator.comparingInt(PlayerInformation::score).reversed()
+                    .thenComparing(Comparator.comparingLong(PlayerInformation::sequence).reversed());
+
+    private final ReentrantLock lock = new ReentrantLock(); // hands out sequences and queues appends in the same order
+    private final TournamentStore store;
+    private long nextSequence;
+
+    // readers share the index, a submission takes it for itself just long enough to add one score
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final RankedTree<PlayerInformation> index;
+    private final Map<String, PlayerInformation> bestByName = new HashMap<>();
+    private final TopK<PlayerInformation> top = new TopK<>(LEADERBOARD_SIZE, BEST_FIRST);
+    private volatile String leaderboard = ""; // top formatted, replaced whenever top changes
 
     /**
      * this inner class sets the player's information
+     * @param name - name of the player
+     * @param score - score for the round
+     * @param round - round number
+     * @param sequence - order the score was submitted in
      */
-    private class PlayerInformation {
-        String name;
-        int score;
-        int round;
+    public record PlayerInformation(String name, int score, int round, long sequence) {
+    }
 
-        public PlayerInformation(String name, int score, int round) {
-            this.name = name;
-            this.score = score;
-            this.round = round;
+    /**
+     * Some rows of the leaderboard
+     * @param offset - rank of the first row, 0 for the best score
+     * @param total - how many scores there are altogether
+     * @param rows - the rows, formatted like the leaderboard
+     */
+    public record Page(int offset, int total, String[] rows) {
+    }
+
+    /**
+     * Reads every score in a store into memory
+     * @param store - the tournament history, closed along with the scoreboard
+     * @throws IOException - if the history can't be read
+     */
+    public TournamentScoreboard(TournamentStore store) throws IOException {
+        this.store = store;
+        List<PlayerInformation> players = new ArrayList<>();
+        store.recover(players::add);
+        for (PlayerInformation player : players) {
+            addToSummaries(player);
         }
+        nextSequence = players.isEmpty() ? 0 : players.get(players.size() - 1).sequence() + 1;
+        players.sort(BEST_FIRST); // so the tree is built in one pass rather than one insert per round
+        index = new RankedTree<>(BEST_FIRST, players);
+        leaderboard = format(top.ranked());
+    }
+
+    /**
+     * Opens the scoreboard kept in a FileTournamentStore, creating it if it doesn't exist. Every submission is
+     * forced to disk before submit returns
+     * @param file - the store's log, tournament.txt for the server
+     * @return - the scoreboard
+     * @throws IOException - if the store can't be read or opened for writing
+     */
+    public static TournamentScoreboard open(Path file) throws IOException {
+        return open(file, GroupCommitWriter.Durability.FSYNC);
     }
 
     /**
-     * compares scores and determines which player should be higher up
+     * Opens the scoreboard kept in a FileTournamentStore, creating it if it doesn't exist
+     * @param file - the store's log, tournament.txt for the server
+     * @param durability - FSYNC to have submit wait until the score is on disk, ASYNC to return straight away
+     * @return - the scoreboard
+     * @throws IOException - if the store can't be read or opened for writing
      */
-    private static class scoreCompare implements Comparator<PlayerInformation> {
-        @Override
-        public synchronized int compare(PlayerInformation playerOne, PlayerInformation playerTwo) {
-            return playerTwo.score - playerOne.score;
+    public static TournamentScoreboard open(Path file, GroupCommitWriter.Durability durability) throws IOException {
+        FileTournamentStore store = new FileTournamentStore(file, durability);
+        try {
+            return new TournamentScoreboard(store);
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
         }
     }
 
     /**
-     * Creates the string to be displayed on the leaderboard and sorts it
+     * Records a finished round: one record appended to the store, and once the store says the record is safe,
+     * one entry added to the index. Never waits for the disk, so a caller like the selector loop can hand in a
+     * whole round's scores at once and they all go out in one batch
      * @param endName - name of the player
      * @param endScore - score for the round
      * @param endRound - round number
-     * @return - string that is separated by new lines
-     * @throws IOException - if writing to the file fails
+     * @return - completes with true if the score made the leaderboard, so getLeaderboard has changed, or fails
+     *           with an UncheckedIOException if the store couldn't write it
      */
-    public synchronized String SortTextFile(String endName, int endScore, int endRound) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader("tournament.txt"));
+    public CompletableFuture<Boolean> submit(String endName, int endScore, int endRound) {
+        String name = endName.replace('\n', ' ').replace('\r', ' '); // one score per line
+        PlayerInformation player;
+        CompletableFuture<Void> written;
+        lock.lock();
+        try {
+            player = new PlayerInformation(name, endScore, endRound, nextSequence++);
+            written = store.append(player);
+        } finally {
+            lock.unlock();
+        }
 
-        ArrayList<PlayerInformation> scoreboardRecord = new ArrayList<>();
-        scoreboardRecord.add(new PlayerInformation(endName, endScore, endRound));
-        String currentLine = reader.readLine();
+        return written.thenApply(done -> {
+            indexLock.writeLock().lock();
+            try {
+                if (!addToIndex(player)) {
+                    return false;
+                }
+                leaderboard = format(top.ranked());
+                return true;
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        });
+    }
 
-        while (currentLine != null) {
-            String[] studentDetail = currentLine.split(" ");
-            String name = studentDetail[0];
+    /**
+     * @param player - a score that is already in the store
+     * @return - true if it made the top LEADERBOARD_SIZE
+     */
+    private boolean addToIndex(PlayerInformation player) {
+        index.add(player);
+        return addToSummaries(player);
+    }
 
-            int score = Integer.parseInt(studentDetail[1]);
-            int round = Integer.parseInt(studentDetail[2]);
+    /**
+     * Keeps bestByName and top up to date
+     * @param player - a score
+     * @return - true if it made the top LEADERBOARD_SIZE
+     */
+    private boolean addToSummaries(PlayerInformation player) {
+        PlayerInformation best = bestByName.get(player.name());
+        if (best == null || BEST_FIRST.compare(player, best) < 0) {
+            bestByName.put(player.name(), player);
+        }
+        return top.offer(player);
+    }
 
-            scoreboardRecord.add(new PlayerInformation(name, score, round));
-            currentLine = reader.readLine();
+    /**
+     * Some rows of the leaderboard, for a client that pages through it
+     * @param offset - rank of the first row, 0 for the best score
+     * @param limit - most rows to return, capped at MAX_PAGE_SIZE
+     * @return - the rows, fewer than limit at the end of the leaderboard
+     */
+    public Page page(int offset, int limit) {
+        indexLock.readLock().lock();
+        try {
+            return pageOf(offset, limit);
+        } finally {
+            indexLock.readLock().unlock();
         }
+    }
 
-        scoreboardRecord.sort(new scoreCompare());
+    /**
+     * The rows of the leaderboard around a player's best score, with their row in the middle where possible
+     * @param name - name of the player
+     * @param limit - most rows to return, capped at MAX_PAGE_SIZE
+     * @return - the rows, or the top of the leaderboard if the player has no scores
+     */
+    public Page around(String name, int limit) {
+        indexLock.readLock().lock();
+        try {
+            PlayerInformation best = bestByName.get(name);
+            if (best == null) {
+                return pageOf(0, limit);
+            }
+            int rows = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            int offset = Math.min(index.rankOf(best) - rows / 2, index.size() - rows);
+            return pageOf(Math.max(0, offset), rows);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
 
-        //Creating BufferedWriter object to write into output text file
-        BufferedWriter writer = new BufferedWriter(new FileWriter("tournament.txt"));
+    private Page pageOf(int offset, int limit) {
+        int first = Math.max(0, offset);
+        List<PlayerInformation> players = index.range(first, Math.min(limit, MAX_PAGE_SIZE));
+        String[] rows = new String[players.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = format(players.get(i));
+        }
+        return new Page(first, index.size(), rows);
+    }
 
-        //Writing every studentRecords into output text file
-        StringBuilder tournamentString = new StringBuilder();
-        for (PlayerInformation player : scoreboardRecord) {
-            tournamentString.append(player.name) //lines 56 - 61 was code we developed, it was not copied
-                    .append(" - score: ")
-                    .append(player.score)
-                    .append(" ; rounds completed: ")
-                    .append(player.round)
-                    .append("\n");
-
-            writer.write(player.name);
-            writer.write(" " + player.score);
-            writer.write(" " + player.round);
-
-            writer.newLine();
+    /**
+     * @param name - name of the player
+     * @return - the player's best score, or null if they have none
+     */
+    public PlayerInformation best(String name) {
+        indexLock.readLock().lock();
+        try {
+            return bestByName.get(name);
+        } finally {
+            indexLock.readLock().unlock();
         }
+    }
 
-        //Closing the resources
-        reader.close();
-        writer.close();
+    /**
+     * @param player - a score on the leaderboard
+     * @return - its rank, 0 for the best score
+     */
+    public int rankOf(PlayerInformation player) {
+        indexLock.readLock().lock();
+        try {
+            return index.rankOf(player);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The string to be displayed on the leaderboard. It is the same String object until a submission changes it,
+     * so callers can cache anything they make from it and compare it by reference
+     * @return - the best LEADERBOARD_SIZE scores separated by new lines, best score first
+     */
+    public String getLeaderboard() {
+        return leaderboard;
+    }
 
+    /**
+     * Creates the string to be displayed on the leaderboard
+     * @param players - scores, best first
+     * @return - string that is separated by new lines
+     */
+    private static String format(Iterable<PlayerInformation> players) {
+        StringBuilder tournamentString = new StringBuilder();
+        for (PlayerInformation player : players) {
+            tournamentString.append(format(player)).append("\n");
+        }
         return tournamentString.toString();
     }
+
+    /**
+     * @param player - a score
+     * @return - its row on the leaderboard
+     */
+    private static String format(PlayerInformation player) {
+        return player.name() + " - score: " + player.score() + " ; rounds completed: " + player.round();
+    }
+
+    /**
+     * @return - number of scores recorded
+     */
+    public int size() {
+        indexLock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes any submissions still queued and closes the store
+     * @throws IOException - if closing it fails
+     */
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
 }
@@ -0,0 +1,34 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * @author Brandon
+ * Where TournamentScoreboard keeps the tournament history. The scoreboard holds its own index in memory, a store
+ * only has to give every record back after a restart, in the order they were appended.
+ */
+public interface TournamentStore extends Closeable {
+
+    /**
+     * Reads back every record the store holds, oldest first. Called once, before the first append
+     * @param records - gets each record, its sequence is its position in the history, 0 for the oldest
+     * @throws IOException - if the history can't be read
+     */
+    void recover(Consumer<TournamentScoreboard.PlayerInformation> records) throws IOException;
+
+    /**
+     * Adds a record to the end of the history. Records are kept in the order append was called
+     * @param record - the record
+     * @return - completes once the record is as safe as the store promises, or fails with an UncheckedIOException
+     */
+    CompletableFuture<Void> append(TournamentScoreboard.PlayerInformation record);
+
+    /**
+     * Folds everything appended so far into the store's compact form, so the next recovery has less to replay
+     * @throws IOException - if that fails, the history is still as it was
+     */
+    void checkpoint() throws IOException;
+}
@@ -2,6 +2,7 @@ package util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Scanner;
 
@@ -12,6 +13,9 @@ import java.util.Scanner;
  */
 public class WordFile {
 
+    public static final String WORD_FILE = "words_alpha.txt";
+    public static final String DICTIONARY_FILE = "words_alpha.bin"; // written by DictionaryCompiler
+
     /**
      * Reads the Word file and returns an ArrayList of the given legal words
      * throws a not found exception if a Word file is not found
@@ -20,7 +24,7 @@ public class WordFile {
     public static ArrayList<String> readWordFile() {
         ArrayList<String> list = new ArrayList<>(); // list to return
         try {
-            File keyFile = new File("words_alpha.txt");
+            File keyFile = new File(WORD_FILE);
             Scanner keyReader = new Scanner(keyFile); // file reader and scanner to read the inputs
 
             while (keyReader.hasNext()) {
@@ -37,6 +41,41 @@ public class WordFile {
         return list;
     }
 
+    /**
+     * Reads the Word file and builds a hash index of the legal words so lookups don't need to scan the list
+     * @return - index of legal words
+     */
+    public static WordIndex readWordIndex() {
+        return new WordIndex(readWordFile());
+    }
+
+    /**
+     * Loads the dictionary used for scoring. If the compiled dictionary file is there and is newer than the Word file
+     * it is memory mapped, which is instant and keeps the words off the heap. Otherwise the Word file is read into
+     * a hash index like before.
+     * @return - lookup of legal words
+     */
+    public static WordLookup loadDictionary() {
+        File compiled = new File(DICTIONARY_FILE);
+        File source = new File(WORD_FILE);
+        if (compiled.exists() && (!source.exists() || compiled.lastModified() >= source.lastModified())) {
+            try {
+                return MappedDictionary.open(compiled.toPath());
+            } catch (IOException e) { // fall back to reading the text file
+                System.out.println("Could not map " + DICTIONARY_FILE + ": " + e.getMessage());
+            }
+        }
+        return readWordIndex();
+    }
+
+    /**
+     * Reads the Word file into a compact word graph that can also answer prefix and rack questions
+     * @return - graph of legal words
+     */
+    public static WordGraph readWordGraph() {
+        return new WordGraph(readWordFile());
+    }
+
     /**
      * this method reads a given file of scrambles and outputs an arraylist of
      * those scrambles
@@ -0,0 +1,273 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * @author Brandon
+ * A directed acyclic word graph (DAWG) of the legal words. Words that share a beginning share the same path from
+ * the root and words that share an ending share the same nodes at the end, so the whole word list fits in a few
+ * small arrays instead of one String per word. Besides checking if a word is legal it can answer if any word
+ * starts with a prefix and list every word that can be spelled from a rack of letters.
+ */
+public class WordGraph implements WordLookup {
+
+    private static final int ROOT = 0;
+
+    private final int[] firstEdge; // edges of node n are firstEdge[n] up to firstEdge[n + 1]
+    private final char[] edgeLetter; // letter on each edge, sorted within a node
+    private final int[] edgeTarget; // node each edge leads to
+    private final boolean[] terminal; // true if a word ends at that node
+    private final int size;
+
+    /**
+     * Builds the graph from a list of words. Only words made of the letters a-z are kept, upper case is folded to
+     * lower case and duplicates are only stored once.
+     * @param words - list of legal words, does not need to be sorted
+     */
+    public WordGraph(List<String> words) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String word : words) {
+            String lower = word.toLowerCase();
+            if (!lower.isEmpty() && isAlpha(lower)) {
+                sorted.add(lower);
+            }
+        }
+
+        Builder builder = new Builder();
+        for (String word : sorted) {
+            builder.add(word);
+        }
+        Node root = builder.finish();
+
+        // number the nodes so every node's edges sit next to each other in the arrays
+        List<Node> order = new ArrayList<>();
+        int edgeCount = number(root, order);
+
+        firstEdge = new int[order.size() + 1];
+        edgeLetter = new char[edgeCount];
+        edgeTarget = new int[edgeCount];
+        terminal = new boolean[order.size()];
+
+        int edge = 0;
+        for (int n = 0; n < order.size(); n++) {
+            Node node = order.get(n);
+            firstEdge[n] = edge;
+            terminal[n] = node.terminal;
+            for (int letter = 0; letter < 26; letter++) {
+                if (node.children[letter] != null) {
+                    edgeLetter[edge] = (char) ('a' + letter);
+                    edgeTarget[edge] = node.children[letter].id;
+                    edge++;
+                }
+            }
+        }
+        firstEdge[order.size()] = edge;
+        size = sorted.size();
+    }
+
+    /**
+     * Checks if a word is in the graph. Upper and lower case are treated the same.
+     * @param word - word to look up
+     * @return true if the word is legal
+     */
+    @Override
+    public boolean contains(CharSequence word) {
+        int node = walk(word);
+        return node != -1 && terminal[node];
+    }
+
+    /**
+     * Checks if at least one legal word starts with the given letters. A whole word counts as its own prefix.
+     * @param prefix - letters the word has to start with
+     * @return true if a word starts with the prefix
+     */
+    public boolean hasPrefix(CharSequence prefix) {
+        return walk(prefix) != -1;
+    }
+
+    /**
+     * Lists every legal word that can be spelled with the given letters, using each letter at most as many times
+     * as it shows up in the rack.
+     * @param rack - letters that can be used, upper or lower case
+     * @return - every word that can be formed, in alphabetical order
+     */
+    public List<String> wordsFormableFrom(char[] rack) {
+        int[] counts = new int[26];
+        for (char c : rack) {
+            int letter = Character.toLowerCase(c) - 'a';
+            if (letter >= 0 && letter < 26) {
+                counts[letter]++;
+            }
+        }
+
+        List<String> found = new ArrayList<>();
+        collect(ROOT, counts, new char[rack.length], 0, found);
+        return found;
+    }
+
+    /**
+     * @return - number of distinct words in the graph
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return - number of nodes the graph needed after sharing common endings
+     */
+    public int nodeCount() {
+        return terminal.length;
+    }
+
+    /**
+     * depth first search that only follows edges we still have letters for
+     */
+    private void collect(int node, int[] counts, char[] spelled, int depth, List<String> found) {
+        if (terminal[node] && depth > 0) {
+            found.add(new String(spelled, 0, depth));
+        }
+
+        for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+            int letter = edgeLetter[edge] - 'a';
+            if (counts[letter] > 0) {
+                counts[letter]--;
+                spelled[depth] = edgeLetter[edge];
+                collect(edgeTarget[edge], counts, spelled, depth + 1, found);
+                counts[letter]++;
+            }
+        }
+    }
+
+    /**
+     * follows the letters from the root and returns the node it ends on, or -1 if there is no such path
+     */
+    private int walk(CharSequence letters) {
+        int node = ROOT;
+        for (int i = 0; i < letters.length() && node != -1; i++) {
+            node = child(node, Character.toLowerCase(letters.charAt(i)));
+        }
+        return node;
+    }
+
+    private int child(int node, char letter) {
+        for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+            if (edgeLetter[edge] == letter) {
+                return edgeTarget[edge];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * gives every node reachable from this one an id, parents before children, and returns how many edges there are
+     */
+    private static int number(Node node, List<Node> order) {
+        node.id = order.size();
+        order.add(node);
+
+        int edges = 0;
+        for (Node child : node.children) {
+            if (child != null) {
+                edges++;
+                if (child.id == -1) {
+                    edges += number(child, order);
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static boolean isAlpha(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) < 'a' || word.charAt(i) > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node used while building. Two finished nodes are equal if they have the same ending flag and point at the
+     * exact same children, which is what lets equal endings be shared.
+     */
+    private static class Node {
+        final Node[] children = new Node[26];
+        boolean terminal;
+        int id = -1;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node other) || terminal != other.terminal) return false;
+            for (int i = 0; i < 26; i++) {
+                if (children[i] != other.children[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = terminal ? 1 : 0;
+            for (Node child : children) {
+                hash = 31 * hash + System.identityHashCode(child);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Builds a minimal graph from words given in sorted order (Daciuk's incremental algorithm). Only the path of the
+     * last word added is still open, everything before it has already been merged with any equal node.
+     */
+    private static class Builder {
+        private final Node root = new Node();
+        private final Map<Node, Node> register = new HashMap<>();
+        private final List<Node> path = new ArrayList<>(); // open nodes along the last word, path[0] is the root
+        private String previous = "";
+
+        Builder() {
+            path.add(root);
+        }
+
+        void add(String word) {
+            int common = 0;
+            while (common < word.length() && common < previous.length()
+                    && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+
+            minimize(common);
+
+            Node node = path.get(common);
+            for (int i = common; i < word.length(); i++) {
+                Node next = new Node();
+                node.children[word.charAt(i) - 'a'] = next;
+                path.add(next);
+                node = next;
+            }
+            node.terminal = true;
+            previous = word;
+        }
+
+        Node finish() {
+            minimize(0);
+            return root;
+        }
+
+        /**
+         * closes the open nodes deeper than the given depth, swapping each one for an equal node if one exists
+         */
+        private void minimize(int depth) {
+            for (int i = path.size() - 1; i > depth; i--) {
+                Node child = path.remove(i);
+                Node existing = register.putIfAbsent(child, child);
+                if (existing != null) {
+                    path.get(i - 1).children[previous.charAt(i - 1) - 'a'] = existing;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Brandon
+ * An open addressing hash set of the legal words. Every word is packed into one shared char array so a lookup
+ * only has to hash the guess and compare characters, it never creates a new String or lower cases the guess.
+ * The index is built once when the dictionary is loaded and is read only after that, so it is safe to share
+ * between all the player threads.
+ */
+public class WordIndex implements WordLookup {
+
+    private static final int EMPTY = -1;
+
+    private final char[] letters; // every word packed back to back in lower case
+    private final int[] starts; // starts[i] is where word i begins in letters, starts[i + 1] is where it ends
+    private final int[] table; // open addressing table of word numbers, EMPTY if the slot is free
+    private final int mask;
+    private final int size;
+
+    /**
+     * Builds the index from a list of words. Words are stored in lower case and duplicates are only stored once.
+     * @param words - list of legal words
+     */
+    public WordIndex(List<String> words) {
+        int totalLength = 0;
+        for (String word : words) {
+            totalLength += word.length();
+        }
+
+        // keep the table at most half full so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(2, words.size()) * 2 - 1) << 1;
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        mask = capacity - 1;
+
+        char[] packed = new char[totalLength];
+        int[] wordStarts = new int[words.size() + 1];
+        int count = 0;
+        int end = 0;
+
+        for (String word : words) {
+            int start = end;
+            for (int i = 0; i < word.length(); i++) {
+                packed[end++] = Character.toLowerCase(word.charAt(i));
+            }
+
+            int slot = findSlot(packed, wordStarts, start, end - start);
+            if (table[slot] != EMPTY) {
+                end = start; // duplicate word, throw the copy away
+                continue;
+            }
+
+            wordStarts[count] = start;
+            wordStarts[count + 1] = end;
+            table[slot] = count++;
+        }
+
+        letters = packed;
+        starts = wordStarts;
+        size = count;
+    }
+
+    /**
+     * Checks if a word is in the index. Upper and lower case are treated the same.
+     * @param word - word to look up
+     * @return true if the word is legal
+     */
+    @Override
+    public boolean contains(CharSequence word) {
+        int hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(word.charAt(i));
+        }
+
+        for (int slot = spread(hash) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int start = starts[table[slot]];
+            int length = starts[table[slot] + 1] - start;
+            if (length == word.length() && matches(start, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return - number of distinct words in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot that either holds the given word or is the free slot it would go in.
+     * Only used while building, when the words are still being packed into the array.
+     */
+    private int findSlot(char[] packed, int[] wordStarts, int keyStart, int keyLength) {
+        int hash = 0;
+        for (int i = keyStart; i < keyStart + keyLength; i++) {
+            hash = 31 * hash + packed[i];
+        }
+
+        int slot = spread(hash) & mask;
+        while (table[slot] != EMPTY) {
+            int start = wordStarts[table[slot]];
+            int length = wordStarts[table[slot] + 1] - start;
+            if (length == keyLength && Arrays.equals(packed, start, start + length, packed, keyStart, keyStart + keyLength)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * compares a stored word against the guess, ignoring case on the guess
+     */
+    private boolean matches(int start, CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (letters[start + i] != Character.toLowerCase(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * mixes the high bits of the hash into the low bits since the table size is a power of two
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,16 @@
+package util;
+
+/**
+ * @author Brandon
+ * Anything that can tell if a word is in the dictionary. Lets Score and DoesWordExist work the same way whether the
+ * words were loaded into memory or are being read from the compiled dictionary file.
+ */
+public interface WordLookup {
+
+    /**
+     * Checks if a word is legal. Upper and lower case are treated the same.
+     * @param word - word to look up
+     * @return true if the word is legal
+     */
+    boolean contains(CharSequence word);
+}
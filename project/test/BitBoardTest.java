@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitBoardTest {
+
+    private static final int SCARLET = 0;
+    private static final int MUSTARD = 1;
+
+    @Test
+    void testBoardShape() {
+        assertEquals(21, Integer.bitCount(BitBoard.CELLS));
+        assertEquals(9, Integer.bitCount(BitBoard.ROOMS));
+        assertEquals(12, Integer.bitCount(BitBoard.HALLWAYS));
+        assertFalse(BitBoard.exists(1, 1));
+        assertTrue(BitBoard.isRoom(BitBoard.cell(2, 2)));
+        assertEquals(BitBoard.bit(BitBoard.cell(0, 1)) | BitBoard.bit(BitBoard.cell(1, 0)),
+                BitBoard.neighbors(BitBoard.cell(0, 0)));
+        assertEquals(4, Integer.bitCount(BitBoard.neighbors(BitBoard.cell(2, 2))));
+    }
+
+    @Test
+    void testSecretPassagesGoBothWays() {
+        assertEquals(BitBoard.cell(4, 4), BitBoard.passage(BitBoard.cell(0, 0)));
+        assertEquals(BitBoard.cell(0, 0), BitBoard.passage(BitBoard.cell(4, 4)));
+        assertEquals(BitBoard.cell(4, 0), BitBoard.passage(BitBoard.cell(0, 4)));
+        assertEquals(BitBoard.OFF_BOARD, BitBoard.passage(BitBoard.cell(2, 2)));
+    }
+
+    @Test
+    void testHallwayHoldsOnePiece() {
+        BitBoard board = new BitBoard();
+        board.place(SCARLET, BitBoard.cell(0, 1));
+        board.place(MUSTARD, BitBoard.cell(0, 2));
+
+        assertFalse(board.canMove(MUSTARD, BitBoard.LEFT));
+        assertFalse(board.move(MUSTARD, BitBoard.cell(0, 1)));
+        assertTrue(board.move(SCARLET, BitBoard.cell(0, 0)));
+        assertTrue(board.canMove(MUSTARD, BitBoard.LEFT));
+        assertEquals(0, board.occupiedHallways());
+    }
+
+    @Test
+    void testRoomsHoldManyPieces() {
+        BitBoard board = new BitBoard();
+        board.place(SCARLET, BitBoard.cell(1, 2));
+        board.place(MUSTARD, BitBoard.cell(2, 2));
+        assertTrue(board.move(SCARLET, BitBoard.cell(2, 2)));
+        assertEquals(BitBoard.cell(2, 2), board.cellOf(SCARLET));
+    }
+
+    @Test
+    void testCannotStepOffTheMap() {
+        BitBoard board = new BitBoard();
+        board.place(SCARLET, BitBoard.cell(0, 0));
+        assertFalse(board.canMove(SCARLET, BitBoard.UP));
+        assertFalse(board.canMove(SCARLET, BitBoard.LEFT));
+        assertFalse(board.move(SCARLET, BitBoard.cell(2, 2)));
+        assertFalse(new BitBoard().canMove(MUSTARD, BitBoard.DOWN));
+    }
+
+    @Test
+    void testLegalMoves() {
+        BitBoard board = new BitBoard();
+        board.place(SCARLET, BitBoard.cell(0, 0));
+        board.place(MUSTARD, BitBoard.cell(0, 1));
+
+        int moves = board.legalMoves(SCARLET);
+        assertEquals(BitBoard.bit(BitBoard.cell(1, 0)) | BitBoard.bit(BitBoard.cell(4, 4)), moves);
+        assertTrue(board.canTakePassage(SCARLET));
+
+        board.remove(MUSTARD);
+        assertEquals(3, Integer.bitCount(board.legalMoves(SCARLET)));
+        assertEquals(0, board.legalMoves(MUSTARD));
+    }
+
+    @Test
+    void testLegalDirections() {
+        BitBoard board = new BitBoard();
+        board.place(SCARLET, BitBoard.cell(0, 0));
+        board.place(MUSTARD, BitBoard.cell(0, 1));
+
+        assertEquals(1 << BitBoard.DOWN | 1 << BitBoard.PASSAGE, board.legalDirections(SCARLET));
+        assertEquals(1 << BitBoard.LEFT | 1 << BitBoard.RIGHT, board.legalDirections(MUSTARD));
+        assertEquals(0, new BitBoard().legalDirections(SCARLET));
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.Frame;
+import net.Message;
+import net.Opcode;
+import org.junit.jupiter.api.Test;
+import util.Cards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BotPlayerTest {
+
+    /**
+     * A person who never moves or suggests, ends every turn straight away and shows whatever they are asked for
+     */
+    private static class IdlePlayer implements Participant {
+
+        private final String characterName;
+        final CompletableFuture<GameSession> session = new CompletableFuture<>();
+        final CompletableFuture<String> winner = new CompletableFuture<>();
+
+        IdlePlayer(String characterName) {
+            this.characterName = characterName;
+        }
+
+        @Override
+        public String getCharacterName() {
+            return characterName;
+        }
+
+        @Override
+        public boolean isEliminated() {
+            return false;
+        }
+
+        @Override
+        public void setEliminated(boolean eliminated) {
+        }
+
+        @Override
+        public void send(Message message) {
+            switch (message.getOpcode()) {
+                case YOUR_TURN -> session.join().handle(this, Message.of(Opcode.END_TURN));
+                case DISPROVE_OPTIONS -> session.join().handle(this,
+                        Message.of(Opcode.DISPROVE_SELECTED, message.getInts(0)[0]));
+                case GAME_OVER -> winner.complete(message.getString(0));
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void send(Frame frame) {
+            send(frame.getMessage());
+        }
+
+        @Override
+        public void disconnect() {
+        }
+    }
+
+    /**
+     * An IdlePlayer who, the first time they are asked to show a card, has someone else answer for them and tries
+     * showing cards they weren't offered, before showing a real one
+     */
+    private static class MeddlingPlayer extends IdlePlayer {
+
+        private Participant bystander;
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean meddled = new AtomicBoolean(false);
+
+        MeddlingPlayer(String characterName) {
+            super(characterName);
+        }
+
+        @Override
+        public void send(Message message) {
+            if (message.getOpcode() == Opcode.ERROR) {
+                errors.add(message.getString(0));
+            } else if (message.getOpcode() == Opcode.DISPROVE_OPTIONS && !meddled.getAndSet(true)) {
+                int[] offered = message.getInts(0);
+                int notOffered = Integer.numberOfTrailingZeros(~Arrays.stream(offered).map(Cards::bit).sum());
+                GameSession game = session.join();
+                game.handle(bystander, Message.of(Opcode.DISPROVE_SELECTED, offered[0]));
+                game.handle(this, Message.of(Opcode.DISPROVE_SELECTED, notOffered));
+                game.handle(this, Message.of(Opcode.DISPROVE_SELECTED, 40)); // not a card at all
+            }
+            super.send(message);
+        }
+    }
+
+    /**
+     * A bot that keeps the errors about showing cards to itself, it didn't mean to send those
+     */
+    private static class RecordingBot extends BotPlayer {
+
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+
+        RecordingBot(String characterName, GameSession session) {
+            super(characterName, session);
+        }
+
+        @Override
+        public void send(Message message) {
+            if (message.getOpcode() == Opcode.ERROR && message.getString(0).contains("show")) {
+                errors.add(message.getString(0));
+            } else {
+                super.send(message);
+            }
+        }
+    }
+
+    @Test
+    void testOnlyTheAskedPlayerCanShowAnOfferedCard() throws Exception {
+        GameSession session = new GameSession(1, ForkJoinPool.commonPool());
+        MeddlingPlayer person = new MeddlingPlayer("MissScarlet");
+        person.session.complete(session);
+        assertTrue(session.reserve("MissScarlet"));
+        session.join(person);
+        RecordingBot bot = new RecordingBot(session.reserveBot(), session);
+        person.bystander = bot;
+        session.join(bot);
+
+        // the bot can only win by being shown cards, so the person is asked at some point
+        assertEquals("ColonelMustard", person.winner.get(30, TimeUnit.SECONDS));
+        assertEquals(List.of("You weren't asked to show a card."), bot.errors);
+        assertEquals(List.of("Show one of the cards you were offered.", "Show one of the cards you were offered."),
+                person.errors);
+    }
+
+    @Test
+    void testBotFillsAnEmptySeatAndWins() throws Exception {
+        Lobby lobby = new Lobby(ForkJoinPool.commonPool());
+        IdlePlayer person = new IdlePlayer("MissScarlet");
+        person.session.complete(lobby.join(person));
+
+        assertTrue(lobby.addBot(person.session.join()));
+
+        // the bot is the only one trying, so it has to be the one who works it out
+        assertEquals("ColonelMustard", person.winner.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBotTakesOverALeavingPlayer() throws Exception {
+        Lobby lobby = new Lobby(ForkJoinPool.commonPool());
+        IdlePlayer leaving = new IdlePlayer("MrsWhite");
+        IdlePlayer staying = new IdlePlayer("MrGreen");
+        leaving.session.complete(lobby.join(leaving));
+        staying.session.complete(lobby.join(staying));
+        assertEquals(leaving.session.join(), staying.session.join());
+
+        lobby.leave(leaving.session.join(), leaving);
+
+        assertEquals(1, lobby.sessionCount());
+        assertEquals("MrsWhite", staying.winner.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testNoBotsOnceTheGameHasStarted() {
+        Lobby lobby = new Lobby(task -> { }); // seats are booked by the lobby, the games never need to run
+        IdlePlayer first = new IdlePlayer("MissScarlet");
+        IdlePlayer second = new IdlePlayer("ProfessorPlum");
+        first.session.complete(lobby.join(first));
+        second.session.complete(lobby.join(second));
+
+        assertFalse(lobby.addBot(first.session.join()));
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import util.Cards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealerTest {
+
+    @Test
+    void testSolutionHasOneOfEach() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 1000; i++) {
+            int solution = Dealer.pickSolution(random);
+            assertEquals(1, Integer.bitCount(solution & Cards.SUSPECTS));
+            assertEquals(1, Integer.bitCount(solution & Cards.WEAPONS));
+            assertEquals(1, Integer.bitCount(solution & Cards.ROOMS));
+        }
+    }
+
+    @Test
+    void testDealsEveryOtherCardOnce() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int players = 2; players <= 6; players++) {
+            int solution = Dealer.pickSolution(random);
+            int[] hands = Dealer.deal(solution, players, random);
+
+            int dealt = 0;
+            for (int hand : hands) {
+                assertEquals(0, dealt & hand);
+                dealt |= hand;
+                int size = Integer.bitCount(hand);
+                assertTrue(size == 18 / players || size == 18 / players + 1);
+            }
+            assertEquals(Cards.ALL & ~solution, dealt);
+            assertEquals(Integer.bitCount(hands[0]), 18 / players + (18 % players == 0 ? 0 : 1));
+        }
+    }
+}
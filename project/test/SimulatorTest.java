@@ -0,0 +1,32 @@
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatorTest {
+
+    @Test
+    void testNotepadPlayersFinishTheirGames() {
+        SimulationStats stats = new Simulator(ForkJoinPool.commonPool()).run(5000, 4, NotepadStrategy::new, 1);
+
+        assertEquals(5000, stats.getGames());
+        assertEquals(0, stats.getNoWinner());
+        double wins = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            wins += stats.winRate(seat);
+        }
+        assertTrue(Math.abs(wins - 1) < 1e-9);
+        assertTrue(stats.turnsPercentile(50) <= stats.turnsPercentile(99));
+        assertTrue(stats.meanSuggestions() > 0);
+    }
+
+    @Test
+    void testSameSeedSameResults() {
+        Simulator simulator = new Simulator(new ForkJoinPool(4));
+        SimulationStats first = simulator.run(3000, 6, NotepadStrategy::new, 42);
+        SimulationStats second = simulator.run(3000, 6, NotepadStrategy::new, 42);
+
+        assertEquals(first.toString(), second.toString());
+    }
+}
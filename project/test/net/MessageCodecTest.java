@@ -0,0 +1,117 @@
+package net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class MessageCodecTest {
+
+    private static final List<Message> MESSAGES = List.of(
+            Message.of(Opcode.YOUR_TURN),
+            Message.of(Opcode.MOVE_DIRECTION, Protocol.LEFT),
+            Message.of(Opcode.ACCUSE, 0, 6, Protocol.cardId("Billiard Room")),
+            Message.of(Opcode.SUBMIT_SCORE, "Brandon", -3, 5),
+            Message.of(Opcode.ALL_POSITIONS, 1, new int[]{0, 4, 0, 3, 2, 2}),
+            Message.of(Opcode.POSITION_DELTA, 1234567, 2, 0, 4, 1, 4),
+            Message.of(Opcode.LEGAL_MOVES, 1 << Protocol.DOWN | 1 << Protocol.PASSAGE),
+            Message.of(Opcode.DISPROVE_RESULT, 2, 0),
+            Message.of(Opcode.GET_LEADERBOARD_AROUND, "Brandon", 10),
+            Message.of(Opcode.LEADERBOARD_PAGE, 20, 1234, new String[]{"a - score: 3 ; rounds completed: 1"}),
+            Message.of(Opcode.PLAYER_BEST, "nobody", -1, -1, -1),
+            Message.of(Opcode.SCRAMBLES, (Object) new String[]{"ABCDE", "FGHIJ"}),
+            Message.of(Opcode.NOTICE, "MrsWhite showed you: Rope ✔"),
+            Message.of(Opcode.LEADERBOARD, "x".repeat(70000))
+    );
+
+    @Test
+    void testRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        for (Message message : MESSAGES) {
+            writer.write(message);
+        }
+
+        MessageReader reader = new MessageReader(new ByteArrayInputStream(bytes.toByteArray()));
+        for (Message message : MESSAGES) {
+            assertEquals(message, reader.read());
+        }
+    }
+
+    @Test
+    void testDecoderWaitsForWholeFrame() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageWriter writer = new MessageWriter(bytes);
+        for (Message message : MESSAGES) {
+            writer.write(message);
+        }
+        byte[] stream = bytes.toByteArray();
+
+        // feed one byte at a time, like the worst possible socket reads
+        MessageDecoder decoder = new MessageDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(stream.length);
+        int decoded = 0;
+        for (byte b : stream) {
+            buffer.put(b);
+            buffer.flip();
+            Message message;
+            while ((message = decoder.next(buffer)) != null) {
+                assertEquals(MESSAGES.get(decoded++), message);
+            }
+            buffer.compact();
+        }
+        assertEquals(MESSAGES.size(), decoded);
+    }
+
+    @Test
+    void testSmallerThanSerialization() throws IOException {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        ObjectOutputStream objects = new ObjectOutputStream(serialized);
+        objects.writeObject("ALL_POSITIONS MissScarlet,4,0 ColonelMustard,0,2 MrsWhite,0,4");
+        objects.flush();
+
+        byte[] frame = MessageCodec.encode(Message.of(Opcode.ALL_POSITIONS, 1, new int[]{0, 4, 0, 1, 0, 2, 2, 0, 4}));
+        assertTrue(frame.length * 4 < serialized.size(), frame.length + " bytes");
+
+        byte[] delta = MessageCodec.encode(Message.of(Opcode.POSITION_DELTA, 2, 0, 4, 0, 3, 0));
+        assertTrue(delta.length < frame.length, delta.length + " bytes");
+    }
+
+    @Test
+    void testRejectsOtherVersions() {
+        MessageDecoder decoder = new MessageDecoder();
+        ByteBuffer header = ByteBuffer.wrap(new byte[]{(byte) 0xC1, (byte) 0xE5, 99});
+        assertThrows(ProtocolException.class, () -> decoder.next(header));
+
+        ByteBuffer serialized = ByteBuffer.wrap(new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5});
+        assertThrows(ProtocolException.class, () -> new MessageDecoder().next(serialized));
+    }
+
+    @Test
+    void testRejectsBadFrames() throws IOException {
+        assertThrows(ProtocolException.class, () -> MessageCodec.decode(ByteBuffer.wrap(new byte[]{0x7F})));
+        assertThrows(ProtocolException.class, () -> MessageCodec.decode(ByteBuffer.wrap(new byte[]{0x09, 1, 2})));
+        assertThrows(ProtocolException.class, () -> MessageCodec.decode(ByteBuffer.wrap(new byte[]{0x46, 0})));
+        assertNull(new MessageDecoder().next(ByteBuffer.wrap(MessageCodec.header())));
+    }
+
+    @Test
+    void testFieldsMustMatchLayout() {
+        assertThrows(IllegalArgumentException.class, () -> Message.of(Opcode.JOIN));
+        assertThrows(IllegalArgumentException.class, () -> Message.of(Opcode.JOIN, 256));
+        assertThrows(IllegalArgumentException.class, () -> Message.of(Opcode.NOTICE, 5));
+    }
+}
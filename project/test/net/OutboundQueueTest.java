@@ -0,0 +1,74 @@
+package net;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class OutboundQueueTest {
+
+    private static final Frame TURN = Frame.of(Message.of(Opcode.YOUR_TURN));
+    private static final Frame OLD_POSITIONS = Frame.of(Message.of(Opcode.ALL_POSITIONS, 1, new int[]{0, 4, 0}));
+    private static final Frame NEW_POSITIONS = Frame.of(Message.of(Opcode.ALL_POSITIONS, 1, new int[]{0, 3, 0}));
+
+    @Test
+    void testFirstInFirstOut() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(4, OverflowPolicy.DISCONNECT);
+        assertTrue(queue.offer(OLD_POSITIONS));
+        assertTrue(queue.offer(TURN));
+        assertEquals(2, queue.size());
+        assertEquals(OLD_POSITIONS, queue.take());
+        assertEquals(TURN, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void testDropPolicy() {
+        OutboundQueue queue = new OutboundQueue(1, OverflowPolicy.DROP);
+        assertTrue(queue.offer(TURN));
+        assertTrue(queue.offer(NEW_POSITIONS));
+        assertEquals(1, queue.dropped());
+        assertEquals(TURN, queue.poll());
+    }
+
+    @Test
+    void testCoalescePolicy() {
+        OutboundQueue queue = new OutboundQueue(2, OverflowPolicy.COALESCE);
+        assertTrue(queue.offer(OLD_POSITIONS));
+        assertTrue(queue.offer(TURN));
+        assertTrue(queue.offer(NEW_POSITIONS)); // replaces the old snapshot
+        assertFalse(queue.offer(TURN)); // nothing to replace, the client has to go
+        assertEquals(NEW_POSITIONS, queue.poll());
+        assertEquals(TURN, queue.poll());
+    }
+
+    @Test
+    void testDisconnectPolicy() {
+        OutboundQueue queue = new OutboundQueue(1, OverflowPolicy.DISCONNECT);
+        assertTrue(queue.offer(OLD_POSITIONS));
+        assertFalse(queue.offer(NEW_POSITIONS));
+    }
+
+    @Test
+    void testCloseWakesWriter() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(2, OverflowPolicy.DISCONNECT);
+        Thread writer = new Thread(() -> {
+            try {
+                assertEquals(TURN, queue.take());
+                assertNull(queue.take());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        queue.offer(TURN);
+        queue.close();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+    }
+}
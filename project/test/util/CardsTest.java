@@ -0,0 +1,47 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Brandon
+ */
+class CardsTest {
+
+    @Test
+    void testIdsAndNames() {
+        for (int id = 0; id < Cards.COUNT; id++) {
+            assertEquals(id, Cards.id(Cards.name(id)));
+        }
+        assertEquals(0, Cards.id("MissScarlet"));
+        assertEquals(Cards.FIRST_WEAPON, Cards.id("Candlestick"));
+        assertEquals(Cards.FIRST_ROOM, Cards.id("Study"));
+        assertThrows(IllegalArgumentException.class, () -> Cards.id("Butler"));
+        assertThrows(IllegalArgumentException.class, () -> Cards.name(Cards.COUNT));
+    }
+
+    @Test
+    void testGroups() {
+        assertEquals(6, Integer.bitCount(Cards.SUSPECTS));
+        assertEquals(6, Integer.bitCount(Cards.WEAPONS));
+        assertEquals(9, Integer.bitCount(Cards.ROOMS));
+        assertEquals(Cards.ALL, Cards.SUSPECTS | Cards.WEAPONS | Cards.ROOMS);
+        assertEquals(0, Cards.SUSPECTS & Cards.WEAPONS | Cards.WEAPONS & Cards.ROOMS);
+    }
+
+    @Test
+    void testMasks() {
+        int hand = Cards.bit(Cards.id("Kitchen")) | Cards.bit(Cards.id("Rope")) | Cards.bit(Cards.id("MrGreen"));
+        assertArrayEquals(new int[]{3, 10, 20}, Cards.ids(hand));
+        assertEquals(List.of("MrGreen", "Rope", "Kitchen"), Cards.names(hand));
+
+        int suggestion = Cards.bit(Cards.id("MrGreen")) | Cards.bit(Cards.id("Knife")) | Cards.bit(Cards.id("Hall"));
+        assertEquals(List.of("MrGreen"), Cards.names(hand & suggestion));
+        assertEquals(0, Cards.ids(0).length);
+    }
+}
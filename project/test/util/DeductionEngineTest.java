@@ -0,0 +1,147 @@
+package util;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class DeductionEngineTest {
+
+    private static final int SCARLET = 0;
+    private static final int MUSTARD = 1;
+    private static final int WHITE = 2;
+    private static final int THREE_PLAYERS = 0b111;
+
+    private static int cards(String... names) {
+        int mask = 0;
+        for (String name : names) {
+            mask |= Cards.bit(Cards.id(name));
+        }
+        return mask;
+    }
+
+    @Test
+    void testOwnHandIsKnown() {
+        int hand = cards("Knife", "Study", "MrGreen", "Rope", "Hall", "Kitchen");
+        DeductionEngine engine = new DeductionEngine(THREE_PLAYERS, SCARLET, hand);
+
+        assertEquals(hand, engine.getHeld(SCARLET));
+        assertEquals(hand, engine.getPossible(SCARLET));
+        assertEquals(0, engine.solutionCandidates() & hand);
+        assertEquals(0, engine.getPossible(MUSTARD) & hand);
+    }
+
+    @Test
+    void testNobodyCouldDisprove() {
+        int hand = cards("Knife", "Study", "MrGreen", "Rope", "Hall", "Kitchen");
+        DeductionEngine engine = new DeductionEngine(THREE_PLAYERS, SCARLET, hand);
+        int suggestion = cards("MrsWhite", "Wrench", "Lounge");
+
+        engine.cannotDisprove(MUSTARD, suggestion);
+        engine.cannotDisprove(WHITE, suggestion);
+
+        assertEquals(suggestion, engine.solution());
+        assertEquals(0, engine.solutionCandidates() & ~suggestion);
+    }
+
+    @Test
+    void testShowedCardNarrowsToTheOneLeft() {
+        int hand = cards("Knife", "Study", "MrGreen", "Rope", "Hall", "Kitchen");
+        DeductionEngine engine = new DeductionEngine(THREE_PLAYERS, SCARLET, hand);
+
+        engine.cannotDisprove(MUSTARD, cards("MrsWhite", "Candlestick", "Lounge"));
+        engine.showedCard(MUSTARD, cards("MrsWhite", "Candlestick", "Ballroom"));
+
+        int ballroom = cards("Ballroom");
+        assertEquals(ballroom, engine.getHeld(MUSTARD) & ballroom);
+        assertEquals(0, engine.getPossible(WHITE) & ballroom);
+        assertEquals(0, engine.solutionCandidates() & ballroom);
+    }
+
+    @Test
+    void testShowedCardWaitsUntilOneOptionIsLeft() {
+        int hand = cards("Knife", "Study", "MrGreen", "Rope", "Hall", "Kitchen");
+        DeductionEngine engine = new DeductionEngine(THREE_PLAYERS, SCARLET, hand);
+
+        engine.showedCard(MUSTARD, cards("ProfessorPlum", "Revolver", "Study"));
+        assertEquals(0, engine.getHeld(MUSTARD));
+
+        engine.shownCard(WHITE, Cards.id("Revolver"));
+        assertEquals(cards("ProfessorPlum"), engine.getHeld(MUSTARD));
+    }
+
+    @Test
+    void testEnvelopeTakesTheLastCardOfAGroup() {
+        int hand = cards("Knife", "Study", "MrGreen", "Rope", "Hall", "Kitchen");
+        DeductionEngine engine = new DeductionEngine(THREE_PLAYERS, SCARLET, hand);
+
+        engine.shownCard(MUSTARD, Cards.id("MissScarlet"));
+        engine.shownCard(WHITE, Cards.id("ColonelMustard"));
+        engine.shownCard(WHITE, Cards.id("MrsWhite"));
+        engine.shownCard(MUSTARD, Cards.id("MrsPeacock"));
+        assertEquals(0, engine.solution());
+
+        assertEquals(cards("ProfessorPlum"), engine.getHeld(DeductionEngine.ENVELOPE) & Cards.SUSPECTS);
+        assertEquals(cards("ProfessorPlum"), engine.solutionCandidates() & Cards.SUSPECTS);
+    }
+
+    @Test
+    void testNeverContradictsTheTruth() {
+        Random random = new Random(3);
+        for (int game = 0; game < 500; game++) {
+            int players = 3 + random.nextInt(4);
+            int solution = 0;
+            solution |= Cards.bit(random.nextInt(Cards.FIRST_WEAPON));
+            solution |= Cards.bit(Cards.FIRST_WEAPON + random.nextInt(6));
+            solution |= Cards.bit(Cards.FIRST_ROOM + random.nextInt(9));
+            int[] hands = new int[players];
+            int[] deck = Cards.ids(Cards.ALL & ~solution);
+            for (int i = deck.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int card = deck[i];
+                deck[i] = deck[j];
+                deck[j] = card;
+            }
+            for (int i = 0; i < deck.length; i++) {
+                hands[i % players] |= Cards.bit(deck[i]);
+            }
+
+            DeductionEngine engine = new DeductionEngine((1 << players) - 1, 0, hands[0]);
+            for (int turn = 0; turn < 40; turn++) {
+                int suggester = random.nextInt(players);
+                int suggestion = Cards.bit(random.nextInt(Cards.FIRST_WEAPON))
+                        | Cards.bit(Cards.FIRST_WEAPON + random.nextInt(6))
+                        | Cards.bit(Cards.FIRST_ROOM + random.nextInt(9));
+                for (int i = 1; i < players; i++) {
+                    int other = (suggester + i) % players;
+                    int matches = hands[other] & suggestion;
+                    if (matches == 0) {
+                        engine.cannotDisprove(other, suggestion);
+                        continue;
+                    }
+                    if (other == 0) {
+                        break; // I showed it, nothing new for me
+                    }
+                    if (suggester == 0) {
+                        engine.shownCard(other, Integer.numberOfTrailingZeros(matches));
+                    } else {
+                        engine.showedCard(other, suggestion);
+                    }
+                    break;
+                }
+
+                for (int owner = 0; owner < players; owner++) {
+                    assertEquals(hands[owner], hands[owner] & engine.getPossible(owner));
+                    assertEquals(engine.getHeld(owner), engine.getHeld(owner) & hands[owner]);
+                }
+                assertEquals(solution, solution & engine.solutionCandidates());
+                assertEquals(engine.getHeld(DeductionEngine.ENVELOPE),
+                        engine.getHeld(DeductionEngine.ENVELOPE) & solution);
+            }
+        }
+    }
+}
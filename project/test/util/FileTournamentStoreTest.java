@@ -0,0 +1,215 @@
+package util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class FileTournamentStoreTest {
+
+    private Path directory;
+    private Path log;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("tournament");
+        log = directory.resolve("tournament.txt");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static TournamentScoreboard.PlayerInformation record(String name, int score, int round) {
+        return new TournamentScoreboard.PlayerInformation(name, score, round, 0);
+    }
+
+    private List<TournamentScoreboard.PlayerInformation> recover(FileTournamentStore store) throws IOException {
+        List<TournamentScoreboard.PlayerInformation> records = new ArrayList<>();
+        store.recover(records::add);
+        return records;
+    }
+
+    private FileTournamentStore open(long checkpointRecords) {
+        return new FileTournamentStore(log, GroupCommitWriter.Durability.FSYNC, checkpointRecords);
+    }
+
+    @Test
+    void testReadsAnOldJournalAsItsLog() throws IOException {
+        Files.write(log, List.of("ann 10 1", "Mary Ann 12 4"));
+        try (FileTournamentStore store = open(100)) {
+            assertEquals(List.of(new TournamentScoreboard.PlayerInformation("ann", 10, 1, 0),
+                    new TournamentScoreboard.PlayerInformation("Mary Ann", 12, 4, 1)), recover(store));
+        }
+    }
+
+    @Test
+    void testCheckpointMovesTheLogIntoTheSnapshot() throws IOException {
+        try (FileTournamentStore store = open(100)) {
+            recover(store);
+            store.append(record("ann", 10, 1)).join();
+            store.append(record("bob", 20, 2)).join();
+            store.checkpoint();
+            store.append(record("cat", 30, 3)).join();
+        }
+
+        assertTrue(Files.exists(directory.resolve("tournament.txt.snapshot")));
+        assertEquals(List.of("cat 30 3"), Files.readAllLines(log)); // only what came after the checkpoint
+        try (FileTournamentStore store = open(100)) {
+            List<TournamentScoreboard.PlayerInformation> records = recover(store);
+            assertEquals(3, records.size());
+            assertEquals(new TournamentScoreboard.PlayerInformation("bob", 20, 2, 1), records.get(1));
+            assertEquals(new TournamentScoreboard.PlayerInformation("cat", 30, 3, 2), records.get(2));
+        }
+    }
+
+    @Test
+    void testEmptyNameSurvivesACheckpoint() throws IOException {
+        try (FileTournamentStore store = open(100)) {
+            recover(store);
+            store.append(record("", 12, 3)).join();
+            store.checkpoint();
+            store.append(record("", 7, 4)).join();
+        }
+
+        try (FileTournamentStore store = open(100)) {
+            assertEquals(List.of(new TournamentScoreboard.PlayerInformation("", 12, 3, 0),
+                    new TournamentScoreboard.PlayerInformation("", 7, 4, 1)), recover(store));
+        }
+    }
+
+    @Test
+    void testCheckpointsOnItsOwn() throws IOException {
+        try (FileTournamentStore store = open(10)) {
+            recover(store);
+            for (int i = 0; i < 25; i++) {
+                store.append(record("player" + i, i, 1)).join();
+            }
+        } // close waits for the background checkpoints
+
+        assertEquals(5, Files.readAllLines(log).size());
+        try (FileTournamentStore store = open(10)) {
+            List<TournamentScoreboard.PlayerInformation> records = recover(store);
+            assertEquals(25, records.size());
+            for (int i = 0; i < 25; i++) {
+                assertEquals("player" + i, records.get(i).name());
+                assertEquals(i, records.get(i).sequence());
+            }
+        }
+    }
+
+    @Test
+    void testSegmentLeftByACrashBeforeTheSnapshotIsReplayed() throws IOException {
+        FileTournamentStore store = open(100);
+        Files.write(store.segment(1), List.of("ann 10 1"));
+        Files.write(log, List.of("bob 20 2"));
+        try (store) {
+            List<TournamentScoreboard.PlayerInformation> records = recover(store);
+            assertEquals(List.of("ann", "bob"), records.stream().map(TournamentScoreboard.PlayerInformation::name)
+                    .toList());
+        }
+    }
+
+    @Test
+    void testSegmentLeftByACrashAfterTheSnapshotIsNotReplayedTwice() throws IOException {
+        try (FileTournamentStore store = open(100)) {
+            recover(store);
+            store.append(record("ann", 10, 1)).join();
+            store.checkpoint(); // folds segment 1 into the snapshot
+        }
+        FileTournamentStore store = open(100);
+        Files.write(store.segment(1), List.of("ann 10 1")); // as if the crash came before it was deleted
+        Files.write(store.temporarySnapshot(), new byte[]{1, 2, 3}); // and a later checkpoint was cut short
+
+        try (store) {
+            assertEquals(1, recover(store).size());
+        }
+        assertFalse(Files.exists(store.segment(1)));
+        assertFalse(Files.exists(store.temporarySnapshot()));
+    }
+
+    @Test
+    void testCorruptSnapshotIsRejected() throws IOException {
+        try (FileTournamentStore store = open(100)) {
+            recover(store);
+            store.append(record("ann", 10, 1)).join();
+            store.checkpoint();
+        }
+        Path snapshot = directory.resolve("tournament.txt.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[20] ^= 1; // a bit of the name
+        Files.write(snapshot, bytes);
+
+        try (FileTournamentStore store = open(100)) {
+            assertThrows(IOException.class, () -> recover(store));
+        }
+    }
+
+    @Test
+    void testSnapshotCutShortIsRejected() throws IOException {
+        try (FileTournamentStore store = open(100)) {
+            recover(store);
+            for (int i = 0; i < 10; i++) {
+                store.append(record("player" + i, i, 1));
+            }
+            store.checkpoint();
+        }
+        Path snapshot = directory.resolve("tournament.txt.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 30));
+
+        try (FileTournamentStore store = open(100)) {
+            assertThrows(IOException.class, () -> recover(store));
+        }
+    }
+
+    @Test
+    void testManyRounds() throws IOException {
+        int rounds = 300_000;
+        try (FileTournamentStore store = open(100_000)) {
+            recover(store);
+            for (int i = 0; i < rounds; i++) {
+                store.append(record("player" + (i % 1000), i, 1 + i % 5));
+            }
+            store.checkpoint();
+        }
+
+        try (FileTournamentStore store = open(100_000)) {
+            List<TournamentScoreboard.PlayerInformation> records = recover(store);
+            assertEquals(rounds, records.size());
+            assertEquals(rounds - 1, records.get(rounds - 1).score());
+            assertTrue(records.get(5).name() == records.get(1005).name()); // one String per player
+        }
+        assertEquals(0, Files.size(log));
+    }
+
+    @Test
+    void testAppendBeforeRecoverIsRejected() {
+        try (FileTournamentStore store = open(100)) {
+            assertThrows(IllegalStateException.class, () -> store.append(record("ann", 10, 1)));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class GroupCommitWriterTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("journal", ".txt");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testLinesAreWrittenInOrder() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (GroupCommitWriter writer = new GroupCommitWriter(file, GroupCommitWriter.Durability.FSYNC,
+                1, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<Void> last = null;
+            for (int i = 0; i < 1000; i++) {
+                lines.add("line " + i);
+                last = writer.append("line " + i);
+            }
+            last.join();
+            assertEquals(lines, Files.readAllLines(file));
+        }
+    }
+
+    @Test
+    void testAppendsInOneWindowShareABatch() throws Exception {
+        ExecutorService players = Executors.newFixedThreadPool(8);
+        try (GroupCommitWriter writer = new GroupCommitWriter(file, GroupCommitWriter.Durability.FSYNC,
+                500, TimeUnit.MILLISECONDS)) {
+            List<CompletableFuture<CompletableFuture<Void>>> appends = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int player = i;
+                appends.add(CompletableFuture.supplyAsync(() -> writer.append("player" + player + " 10 1"), players));
+            }
+            List<CompletableFuture<Void>> written = new ArrayList<>();
+            for (CompletableFuture<CompletableFuture<Void>> append : appends) {
+                written.add(append.get());
+            }
+
+            for (CompletableFuture<Void> batch : written) {
+                assertTrue(batch == written.get(0)); // one write for everyone
+            }
+            written.get(0).join();
+            assertEquals(8, Files.readAllLines(file).size());
+        } finally {
+            players.shutdown();
+        }
+    }
+
+    @Test
+    void testAsyncWritesToo() throws IOException {
+        try (GroupCommitWriter writer = new GroupCommitWriter(file, GroupCommitWriter.Durability.ASYNC,
+                1, TimeUnit.MILLISECONDS)) {
+            writer.append("ann 10 1").join();
+            assertEquals(List.of("ann 10 1"), Files.readAllLines(file));
+        }
+    }
+
+    @Test
+    void testCloseWritesWhatIsQueued() throws IOException {
+        GroupCommitWriter writer = new GroupCommitWriter(file, GroupCommitWriter.Durability.FSYNC,
+                10, TimeUnit.SECONDS);
+        CompletableFuture<Void> written = writer.append("ann 10 1");
+        writer.close(); // doesn't wait out the ten second window
+
+        assertTrue(written.isDone());
+        assertEquals(List.of("ann 10 1"), Files.readAllLines(file));
+        assertThrows(CompletionException.class, () -> writer.append("bob 5 1").join());
+    }
+}
@@ -0,0 +1,69 @@
+package util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class MappedDictionaryTest {
+
+    private static Path file;
+    private static MappedDictionary words;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        file = Files.createTempFile("words", ".bin");
+        DictionaryCompiler.compile(List.of("page", "age", "Ag", "agape", "age", "zebra", "a"), file);
+        words = MappedDictionary.open(file);
+    }
+
+    @AfterAll
+    static void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testWordCount() {
+        assertEquals(6, words.size());
+    }
+
+    @Test
+    void testValidWords() {
+        assertTrue(DoesWordExist.execute(words, "a"));
+        assertTrue(DoesWordExist.execute(words, "ag"));
+        assertTrue(DoesWordExist.execute(words, "AGAPE"));
+        assertTrue(DoesWordExist.execute(words, "Page"));
+        assertTrue(DoesWordExist.execute(words, "zebra"));
+    }
+
+    @Test
+    void testInvalidWords() {
+        assertFalse(DoesWordExist.execute(words, ""));
+        assertFalse(DoesWordExist.execute(words, "ages"));
+        assertFalse(DoesWordExist.execute(words, "pag"));
+        assertFalse(DoesWordExist.execute(words, "zzz"));
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path text = Files.createTempFile("words", ".txt");
+        Files.writeString(text, "page\nage\nagape\n");
+        try {
+            assertThrows(IOException.class, () -> MappedDictionary.open(text));
+        } finally {
+            Files.deleteIfExists(text);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Brandon
+ */
+class RankedTreeTest {
+
+    @Test
+    void testEmpty() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.rankOf(5));
+        assertEquals(List.of(), tree.range(0, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(0));
+    }
+
+    @Test
+    void testMatchesASortedList() {
+        Random random = new Random(11);
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.reverseOrder());
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(100_000);
+            tree.add(value);
+            sorted.add(value);
+        }
+        sorted.sort(Comparator.reverseOrder());
+
+        assertEquals(sorted.size(), tree.size());
+        for (int rank = 0; rank < sorted.size(); rank += 37) {
+            assertEquals(sorted.get(rank), tree.get(rank));
+            assertEquals(sorted.indexOf(sorted.get(rank)), tree.rankOf(sorted.get(rank)));
+        }
+        assertEquals(sorted, tree.range(0, sorted.size()));
+        assertEquals(sorted.subList(1234, 1334), tree.range(1234, 100));
+    }
+
+    @Test
+    void testBuildFromSortedItems() {
+        Random random = new Random(5);
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            sorted.add(random.nextInt(1000));
+        }
+        sorted.sort(Comparator.naturalOrder());
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder(), sorted);
+
+        assertEquals(sorted.size(), tree.size());
+        assertEquals(sorted, tree.range(0, sorted.size()));
+        assertEquals(sorted.get(2500), tree.get(2500));
+        tree.add(-1);
+        assertEquals(-1, (int) tree.get(0));
+        assertEquals(5001, tree.size());
+    }
+
+    @Test
+    void testBuildRejectsUnsortedItems() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RankedTree<>(Comparator.<Integer>naturalOrder(), List.of(1, 3, 2)));
+    }
+
+    @Test
+    void testRangePastTheEnd() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            tree.add(i);
+        }
+
+        assertEquals(List.of(7, 8, 9), tree.range(7, 5));
+        assertEquals(List.of(), tree.range(10, 5));
+        assertEquals(List.of(), tree.range(3, 0));
+    }
+
+    @Test
+    void testRankOfAMissingItem() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int i = 0; i < 100; i += 10) {
+            tree.add(i);
+        }
+
+        assertEquals(3, tree.rankOf(25)); // 0, 10 and 20 come before it
+        assertEquals(10, tree.rankOf(1000));
+    }
+
+    @Test
+    void testStaysShallowWhenAddedInOrder() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int i = 0; i < 200_000; i++) {
+            tree.add(i); // a plain search tree would be a 200000 deep list and overflow the stack
+        }
+
+        assertEquals(200_000, tree.size());
+        assertEquals(123_456, (int) tree.get(123_456));
+        assertEquals(199_999, tree.rankOf(199_999));
+    }
+}
@@ -2,6 +2,7 @@ package util;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -52,4 +53,19 @@ class ScoreTest {
         int actualResult = Score.calculate("a", letters);
         assertEquals(expectedResult, actualResult);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLowerCaseLetters() {
+        int expectedResult = 1 + 1 + 8 + 1;
+        int actualResult = Score.calculate("AGE", new char[]{'a', 'p', 'g', 'e'});
+        assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void testCalculateAll() {
+        String[] words = {"page", "notaword123", "age", "agape", "a", "pa"};
+        int[] expectedResult = {(1 + 7 + 1 + 8 + 1) * 2, 0, 1 + 1 + 8 + 1, 0, -1, 1 + 7 + 1};
+        int[] actualResult = Score.calculateAll(words, letters);
+        assertArrayEquals(expectedResult, actualResult);
+    }
+}
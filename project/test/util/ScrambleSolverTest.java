@@ -0,0 +1,44 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Brandon
+ */
+class ScrambleSolverTest {
+
+    private static final ScrambleSolver solver = new ScrambleSolver(
+            List.of("page", "age", "ag", "agape", "gap", "a", "pageant"), 4);
+
+    @Test
+    void testFindsEveryWord() {
+        List<String> found = new ArrayList<>();
+        for (ScrambleSolver.ScoredWord word : solver.solve("apge")) {
+            found.add(word.getWord());
+        }
+        assertEquals(List.of("page", "gap", "age", "ag"), found);
+    }
+
+    @Test
+    void testScoresMatchScore() {
+        ScrambleSolver.ScoredWord best = solver.solve("apge").get(0);
+        assertEquals(Score.calculate("page", new char[]{'A', 'P', 'G', 'E'}), best.getScore());
+    }
+
+    @Test
+    void testParScore() {
+        int expectedResult = (1 + 7 + 1 + 8 + 1) * 2 + (1 + 8 + 1 + 7) + (1 + 1 + 8 + 1) + (1 + 1 + 8);
+        assertEquals(expectedResult, solver.parScore("apge"));
+    }
+
+    @Test
+    void testScrambleTooLong() {
+        assertThrows(IllegalArgumentException.class, () -> solver.solve("pageant"));
+    }
+}
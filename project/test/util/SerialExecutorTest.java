@@ -0,0 +1,96 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class SerialExecutorTest {
+
+    @Test
+    void testRunsInOrder() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            SerialExecutor executor = new SerialExecutor(pool);
+            List<Integer> ran = new ArrayList<>(); // not thread safe on purpose
+            CountDownLatch done = new CountDownLatch(1);
+            for (int i = 0; i < 1000; i++) {
+                int n = i;
+                executor.execute(() -> ran.add(n));
+            }
+            executor.execute(done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, (int) ran.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testNeverRunsTwoTasksAtOnce() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        try {
+            SerialExecutor executor = new SerialExecutor(pool);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            int[] count = {0}; // only touched by the executor's tasks
+            CountDownLatch done = new CountDownLatch(4 * 500);
+
+            for (int s = 0; s < 4; s++) {
+                senders.execute(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        executor.execute(() -> {
+                            if (running.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            count[0]++;
+                            running.decrementAndGet();
+                            done.countDown();
+                        });
+                    }
+                });
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            CountDownLatch last = new CountDownLatch(1);
+            executor.execute(last::countDown);
+            assertTrue(last.await(5, TimeUnit.SECONDS));
+            assertEquals(2000, count[0]);
+        } finally {
+            senders.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testKeepsGoingAfterAFailedTask() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            SerialExecutor executor = new SerialExecutor(pool);
+            CountDownLatch done = new CountDownLatch(1);
+            executor.execute(() -> {
+                throw new IllegalStateException("expected by the test");
+            });
+            executor.execute(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
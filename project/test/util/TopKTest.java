@@ -0,0 +1,63 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class TopKTest {
+
+    private static final Comparator<Integer> HIGHEST_FIRST = Comparator.reverseOrder();
+
+    @Test
+    void testKeepsTheBest() {
+        TopK<Integer> top = new TopK<>(3, HIGHEST_FIRST);
+        for (int value : new int[]{5, 1, 9, 7, 3, 8}) {
+            top.offer(value);
+        }
+
+        assertEquals(3, top.size());
+        assertEquals(List.of(9, 8, 7), top.ranked());
+    }
+
+    @Test
+    void testOfferSaysWhetherTheRankingChanged() {
+        TopK<Integer> top = new TopK<>(2, HIGHEST_FIRST);
+        assertTrue(top.offer(4));
+        assertTrue(top.offer(6));
+        List<Integer> ranked = top.ranked();
+
+        assertFalse(top.offer(1));
+        assertFalse(top.offer(4)); // a tie with the worst kept doesn't push it out
+        assertTrue(ranked == top.ranked()); // not sorted again
+        assertTrue(top.offer(5));
+        assertEquals(List.of(6, 5), top.ranked());
+    }
+
+    @Test
+    void testMatchesSortingEverything() {
+        Random random = new Random(7);
+        List<Integer> values = IntStream.range(0, 5000).map(i -> random.nextInt(1000)).boxed()
+                .collect(Collectors.toList());
+        TopK<Integer> top = new TopK<>(10, HIGHEST_FIRST);
+        values.forEach(top::offer);
+
+        assertEquals(values.stream().sorted(HIGHEST_FIRST).limit(10).collect(Collectors.toList()), top.ranked());
+    }
+
+    @Test
+    void testRejectsEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<>(0, HIGHEST_FIRST));
+    }
+}
@@ -0,0 +1,251 @@
+package util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class TournamentScoreboardTest {
+
+    private Path journal;
+
+    @BeforeEach
+    void setup() throws IOException {
+        journal = Files.createTempFile("tournament", ".txt");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(journal);
+        Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".snapshot"));
+    }
+
+    @Test
+    void testBestScoreFirst() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("ann", 10, 1).join();
+            scoreboard.submit("bob", 30, 2).join();
+            scoreboard.submit("cat", 20, 3).join();
+
+            assertEquals("bob - score: 30 ; rounds completed: 2\n"
+                    + "cat - score: 20 ; rounds completed: 3\n"
+                    + "ann - score: 10 ; rounds completed: 1\n", scoreboard.getLeaderboard());
+        }
+    }
+
+    @Test
+    void testNewestFirstAmongEqualScores() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("ann", 10, 1).join();
+            scoreboard.submit("bob", 10, 1).join();
+
+            assertEquals("bob - score: 10 ; rounds completed: 1\n"
+                    + "ann - score: 10 ; rounds completed: 1\n", scoreboard.getLeaderboard());
+        }
+    }
+
+    @Test
+    void testSubmissionsOnlyAppend() throws IOException {
+        Files.write(journal, List.of("old 5 1"));
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("new", 50, 2).join();
+        }
+
+        assertEquals(List.of("old 5 1", "new 50 2"), Files.readAllLines(journal));
+    }
+
+    @Test
+    void testReopenRebuildsTheIndex() throws IOException {
+        String leaderboard;
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("ann", 10, 1).join();
+            scoreboard.submit("bob", 30, 2).join();
+            scoreboard.submit("bob", 10, 3).join();
+            leaderboard = scoreboard.getLeaderboard();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals(3, scoreboard.size());
+            assertEquals(leaderboard, scoreboard.getLeaderboard());
+        }
+    }
+
+    @Test
+    void testReopenFromASnapshot() throws IOException {
+        String leaderboard;
+        try (TournamentScoreboard scoreboard = new TournamentScoreboard(
+                new FileTournamentStore(journal, GroupCommitWriter.Durability.FSYNC, 7))) {
+            for (int i = 0; i < 30; i++) {
+                scoreboard.submit("player" + i % 4, i * 7 % 30, i).join();
+            }
+            leaderboard = scoreboard.getLeaderboard();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals(30, scoreboard.size());
+            assertEquals(leaderboard, scoreboard.getLeaderboard());
+            assertEquals(29, scoreboard.best("player1").score());
+            scoreboard.submit("new", 100, 1).join();
+            assertEquals("new - score: 100 ; rounds completed: 1", scoreboard.page(0, 1).rows()[0]);
+        }
+    }
+
+    @Test
+    void testSkipsALineCutShortByACrash() throws IOException {
+        Files.writeString(journal, "ann 10 1\nbob 3");
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals(1, scoreboard.size());
+            scoreboard.submit("cat", 20, 2).join();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals("cat - score: 20 ; rounds completed: 2\n"
+                    + "ann - score: 10 ; rounds completed: 1\n", scoreboard.getLeaderboard());
+        }
+    }
+
+    @Test
+    void testDropsACutShortLineThatStillParses() throws IOException {
+        // "bob 30 12" cut short by a crash, never acknowledged
+        Files.writeString(journal, "ann 10 1\nbob 30 1");
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals(1, scoreboard.size());
+            assertEquals("ann 10 1\n", Files.readString(journal));
+            scoreboard.submit("cat", 20, 2).join();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals("cat - score: 20 ; rounds completed: 2\n"
+                    + "ann - score: 10 ; rounds completed: 1\n", scoreboard.getLeaderboard());
+        }
+    }
+
+    @Test
+    void testOnlyTheTopScoresAreShown() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            for (int i = 0; i < 25; i++) {
+                scoreboard.submit("player" + i, i, 1).join();
+            }
+
+            String[] rows = scoreboard.getLeaderboard().split("\n");
+            assertEquals(TournamentScoreboard.LEADERBOARD_SIZE, rows.length);
+            assertEquals("player24 - score: 24 ; rounds completed: 1", rows[0]);
+            assertEquals("player15 - score: 15 ; rounds completed: 1", rows[9]);
+            assertEquals(25, scoreboard.size());
+        }
+    }
+
+    @Test
+    void testLeaderboardOnlyChangesWithTheTop() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            for (int i = 0; i < TournamentScoreboard.LEADERBOARD_SIZE; i++) {
+                assertTrue(scoreboard.submit("player" + i, 100 + i, 1).join());
+            }
+            String leaderboard = scoreboard.getLeaderboard();
+
+            assertFalse(scoreboard.submit("low", 5, 1).join());
+            assertTrue(leaderboard == scoreboard.getLeaderboard()); // same object, so a cached reply is still good
+
+            assertTrue(scoreboard.submit("high", 500, 1).join());
+            assertTrue(scoreboard.getLeaderboard().startsWith("high - score: 500"));
+        }
+    }
+
+    @Test
+    void testSubmitDoesNotWaitForTheDisk() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            List<CompletableFuture<Boolean>> submitted = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                submitted.add(scoreboard.submit("player" + i, i, 1)); // one thread, like the selector loop
+            }
+            CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(20, scoreboard.size());
+            assertTrue(scoreboard.getLeaderboard().startsWith("player19 - score: 19"));
+        }
+    }
+
+    @Test
+    void testPages() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            for (int i = 0; i < 50; i++) {
+                scoreboard.submit("player" + i, i, 1).join();
+            }
+
+            TournamentScoreboard.Page page = scoreboard.page(20, 5);
+            assertEquals(20, page.offset());
+            assertEquals(50, page.total());
+            assertEquals(5, page.rows().length);
+            assertEquals("player29 - score: 29 ; rounds completed: 1", page.rows()[0]);
+            assertEquals("player25 - score: 25 ; rounds completed: 1", page.rows()[4]);
+
+            assertEquals(2, scoreboard.page(48, 10).rows().length);
+            assertEquals(50, scoreboard.page(0, 1000).rows().length);
+        }
+    }
+
+    @Test
+    void testAroundAPlayer() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            for (int i = 0; i < 50; i++) {
+                scoreboard.submit("player" + i, i, 1).join();
+            }
+            scoreboard.submit("me", 30, 2).join();
+            scoreboard.submit("me", 10, 3).join();
+
+            // me's best is 30, ranked 19 behind the 19 players above 30 and ahead of the older player30
+            TournamentScoreboard.PlayerInformation best = scoreboard.best("me");
+            assertEquals(30, best.score());
+            assertEquals(2, best.round());
+            assertEquals(19, scoreboard.rankOf(best));
+
+            TournamentScoreboard.Page page = scoreboard.around("me", 5);
+            assertEquals(17, page.offset());
+            assertEquals("me - score: 30 ; rounds completed: 2", page.rows()[2]);
+
+            assertEquals(0, scoreboard.around("player49", 5).offset()); // the top can't be in the middle
+            assertEquals(47, scoreboard.around("player0", 5).offset()); // nor can the bottom
+            assertEquals(0, scoreboard.around("nobody", 5).offset());
+            assertNull(scoreboard.best("nobody"));
+        }
+    }
+
+    @Test
+    void testEmptyNameSurvivesAReopen() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("", 12, 3).join();
+            scoreboard.submit("ann", 5, 1).join();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals(2, scoreboard.size());
+            assertEquals(12, scoreboard.best("").score());
+            assertEquals(1, scoreboard.best("ann").sequence()); // the scores after it keep their places
+        }
+    }
+
+    @Test
+    void testNamesWithSpaces() throws IOException {
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            scoreboard.submit("Mary Ann", 12, 4).join();
+        }
+
+        try (TournamentScoreboard scoreboard = TournamentScoreboard.open(journal)) {
+            assertEquals("Mary Ann - score: 12 ; rounds completed: 4\n", scoreboard.getLeaderboard());
+        }
+    }
+}
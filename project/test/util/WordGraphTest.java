@@ -0,0 +1,63 @@
+package util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class WordGraphTest {
+
+    private static WordGraph words;
+
+    @BeforeAll
+    static void setup() {
+        words = WordFile.readWordGraph();
+    }
+
+    @Test
+    void testWordCount() {
+        assertEquals(370105, words.size());
+    }
+
+    @Test
+    void testValidWords() {
+        assertTrue(words.contains("all"));
+        assertTrue(words.contains("adeem"));
+        assertTrue(words.contains("Femme"));
+        assertTrue(words.contains("CADE"));
+    }
+
+    @Test
+    void testInvalidWords() {
+        assertFalse(words.contains("allasdasd"));
+        assertFalse(words.contains("Ai234jLL"));
+        assertFalse(words.contains("Aiuskao"));
+    }
+
+    @Test
+    void testPrefixes() {
+        assertTrue(words.hasPrefix("tourn"));
+        assertTrue(words.hasPrefix("page"));
+        assertFalse(words.hasPrefix("xqz"));
+    }
+
+    @Test
+    void testWordsFormableFromRack() {
+        WordGraph small = new WordGraph(List.of("page", "age", "ag", "agape", "gap", "pages"));
+        assertEquals(List.of("ag", "age", "gap", "page"), small.wordsFormableFrom(new char[]{'A', 'P', 'G', 'E'}));
+    }
+
+    @Test
+    void testEndingsAreShared() {
+        WordGraph small = new WordGraph(List.of("tap", "taps", "top", "tops"));
+        // root, t, ta/to share one node, p, s
+        assertEquals(5, small.nodeCount());
+    }
+}
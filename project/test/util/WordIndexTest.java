@@ -0,0 +1,56 @@
+package util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Brandon
+ */
+class WordIndexTest {
+
+    private static WordIndex words;
+
+    @BeforeAll
+    static void setup() {
+        words = WordFile.readWordIndex();
+    }
+
+    @Test
+    void testValidWords() {
+        assertTrue(DoesWordExist.execute(words, "all"));
+        assertTrue(DoesWordExist.execute(words, "edema"));
+        assertTrue(DoesWordExist.execute(words, "femme"));
+        assertTrue(DoesWordExist.execute(words, "cade"));
+        assertTrue(DoesWordExist.execute(words, "PAGE"));
+        assertTrue(DoesWordExist.execute(words, "Evade"));
+    }
+
+    @Test
+    void testInvalidWords() {
+        assertFalse(DoesWordExist.execute(words, "allasdasd"));
+        assertFalse(DoesWordExist.execute(words, "Ai234jLL"));
+        assertFalse(DoesWordExist.execute(words, "Aiusa?.ad"));
+        assertFalse(DoesWordExist.execute(words, ""));
+    }
+
+    @Test
+    void testDuplicatesAreStoredOnce() {
+        WordIndex small = new WordIndex(List.of("cat", "CAT", "dog"));
+        assertEquals(2, small.size());
+        assertTrue(small.contains("Cat"));
+        assertTrue(small.contains("dog"));
+        assertFalse(small.contains("ca"));
+        assertFalse(small.contains("cats"));
+    }
+
+    @Test
+    void testWordCount() {
+        assertEquals(370105, words.size());
+    }
+}